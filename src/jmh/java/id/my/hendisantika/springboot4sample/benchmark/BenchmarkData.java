@@ -0,0 +1,71 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+public final class BenchmarkData {
+
+    private static final String DESCRIPTION = "Benchmark product description ".repeat(10);
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    public static ProductRequest request(int i) {
+        return ProductRequest.builder()
+                .name("Product " + i)
+                .description(DESCRIPTION)
+                .price(BigDecimal.valueOf(1000 + i, 2))
+                .quantity(i % 500)
+                .category("Category " + (i % 20))
+                .isActive(i % 10 != 0)
+                .build();
+    }
+
+    public static Product product(int i) {
+        return Product.builder()
+                .id((long) i)
+                .name("Product " + i)
+                .description(DESCRIPTION)
+                .price(BigDecimal.valueOf(1000 + i, 2))
+                .quantity(i % 500)
+                .category("Category " + (i % 20))
+                .isActive(i % 10 != 0)
+                .createdAt(TIMESTAMP)
+                .updatedAt(TIMESTAMP)
+                .build();
+    }
+
+    public static List<ProductResponse> responses(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ProductResponse.builder()
+                        .id((long) i)
+                        .name("Product " + i)
+                        .description(DESCRIPTION)
+                        .price(BigDecimal.valueOf(1000 + i, 2))
+                        .quantity(i % 500)
+                        .category("Category " + (i % 20))
+                        .isActive(i % 10 != 0)
+                        .createdAt(TIMESTAMP)
+                        .updatedAt(TIMESTAMP)
+                        .build())
+                .toList();
+    }
+}
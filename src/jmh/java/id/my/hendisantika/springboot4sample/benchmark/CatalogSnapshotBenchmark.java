@@ -0,0 +1,77 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.catalog.CatalogSnapshot;
+import id.my.hendisantika.springboot4sample.catalog.ProductFilter;
+import id.my.hendisantika.springboot4sample.config.CatalogSnapshotProperties;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Filter queries against a catalog snapshot filled through the change events. Memory and per-query
+ * work should not depend on the number of categories, which is why it is a parameter. The 10M case
+ * keeps about 650 MB of columns, bitsets and id map: {@code -p products=10000000 -jvmArgs -Xmx4g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"20", "200", "2000"})
+    private int categories;
+
+    private CatalogSnapshot snapshot;
+    private ProductFilter categoryAndFlags;
+    private ProductFilter priceRangeByPrice;
+
+    @Setup
+    public void setUp() {
+        CatalogSnapshotProperties properties = new CatalogSnapshotProperties();
+        snapshot = new CatalogSnapshot(null, properties);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= products; id++) {
+            snapshot.onProductChanged(ProductChangedEvent.created(ProductResponse.builder()
+                    .id(id)
+                    .price(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                    .quantity(random.nextInt(0, 50))
+                    .category("category-" + random.nextInt(categories))
+                    .isActive(random.nextInt(10) > 0)
+                    .build()));
+        }
+        categoryAndFlags = new ProductFilter(Set.of("category-7", "category-8"), true, true, null, null,
+                ProductFilter.SortKey.ID, true, 0, 20);
+        priceRangeByPrice = new ProductFilter(Set.of(), true, null, new BigDecimal("100.00"),
+                new BigDecimal("250.00"), ProductFilter.SortKey.PRICE, false, 2, 20);
+    }
+
+    @Benchmark
+    public CatalogSnapshot.Result categoryAndFlags() {
+        return snapshot.filter(categoryAndFlags);
+    }
+
+    @Benchmark
+    public CatalogSnapshot.Result priceRangeSortedByPrice() {
+        return snapshot.filter(priceRangeByPrice);
+    }
+}
@@ -0,0 +1,81 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.SpringBoot4SampleApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Boots the application without a web server against an in-memory H2 database in MySQL mode and
+ * seeds it with {@code rows} products whose ids run from 1 to {@code rows}.
+ */
+public final class EmbeddedDatabaseContext {
+
+    public static final int CATEGORIES = 1000;
+
+    private static final int BATCH_SIZE = 5000;
+
+    private EmbeddedDatabaseContext() {
+    }
+
+    public static ConfigurableApplicationContext start(int rows) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = SpringApplication.run(SpringBoot4SampleApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.docker.compose.enabled=false",
+                "--app.search.index-enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.id.my.hendisantika=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        seed(context.getBean(JdbcTemplate.class), rows);
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{
+                    "Product " + i,
+                    "Seeded benchmark product number " + i,
+                    BigDecimal.valueOf(100 + (i * 37L) % 100_000, 2),
+                    i % 500,
+                    "Category " + (i % CATEGORIES),
+                    i % 10 != 0,
+                    now,
+                    now});
+            if (batch.size() == BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO products "
+                        + "(name, description, price, quantity, category, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.cache.EncodedResponse;
+import id.my.hendisantika.springboot4sample.cache.EncodedResponseHttpMessageConverter;
+import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Writing a category response from scratch versus writing its cached encoding with the
+ * timestamp spliced in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodedResponseBenchmark {
+
+    @Param({"1", "50"})
+    private int products;
+
+    private JsonMapper jsonMapper;
+    private EncodedResponseHttpMessageConverter converter;
+    private List<ProductResponse> content;
+    private EncodedResponse encoded;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        converter = new EncodedResponseHttpMessageConverter(jsonMapper);
+        content = BenchmarkData.responses(products);
+        ApiResponse<List<ProductResponse>> envelope = ApiResponse.success("Products retrieved successfully", content);
+        envelope.setTimestamp(null);
+        encoded = new EncodedResponse(MediaType.APPLICATION_JSON, jsonMapper.writeValueAsBytes(envelope),
+                ProductVersion.of(content));
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() {
+        return jsonMapper.writeValueAsBytes(ApiResponse.success("Products retrieved successfully", content));
+    }
+
+    @Benchmark
+    public byte[] writeEncodedResponse() throws IOException {
+        BufferedOutputMessage message = new BufferedOutputMessage(encoded.body().length + 48);
+        converter.write(encoded, MediaType.APPLICATION_JSON, message);
+        return message.body.toByteArray();
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private BufferedOutputMessage(int size) {
+            this.body = new ByteArrayOutputStream(size);
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
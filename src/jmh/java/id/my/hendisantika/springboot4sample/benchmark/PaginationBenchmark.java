@@ -0,0 +1,71 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Offset paging (LIMIT/OFFSET plus COUNT) against keyset paging for the first page and page 10,000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ROWS = 10_001 * PAGE_SIZE;
+
+    @Param({"0", "10000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ScrollPosition keysetPosition;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedDatabaseContext.start(ROWS);
+        productRepository = context.getBean(ProductRepository.class);
+        keysetPosition = page == 0
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("id", (long) page * PAGE_SIZE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> offsetPage() {
+        return productRepository.findAll(PageRequest.of(page, PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Window<Product> keysetPage() {
+        return productRepository.findAllBy(keysetPosition, Sort.by("id"), Limit.of(PAGE_SIZE));
+    }
+}
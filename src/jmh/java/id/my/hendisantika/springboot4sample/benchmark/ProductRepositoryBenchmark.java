@@ -0,0 +1,92 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductRepositoryBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int SHELVES = 20;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedDatabaseContext.start(ROWS);
+        productRepository = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return productRepository.findById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    @Benchmark
+    public List<Product> findByCategory() {
+        int category = ThreadLocalRandom.current().nextInt(EmbeddedDatabaseContext.CATEGORIES);
+        return productRepository.findByCategory("Category " + category);
+    }
+
+    @Benchmark
+    public List<Product> findActiveByCategory() {
+        int category = ThreadLocalRandom.current().nextInt(EmbeddedDatabaseContext.CATEGORIES);
+        return productRepository.findActiveByCategorY("Category " + category);
+    }
+
+    @Benchmark
+    public List<List<ProductResponse>> sequentialCategoryLookups() {
+        return shelves().stream()
+                .map(productRepository::findResponsesByCategory)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Product> limitedCategoryLookup() {
+        return productRepository.findFirstPerCategory(shelves(), false, 20);
+    }
+
+    @Benchmark
+    public List<Product> searchByKeyword() {
+        return productRepository.searchByKeyword("number 4242", PageRequest.of(0, 20));
+    }
+
+    private static List<String> shelves() {
+        int first = ThreadLocalRandom.current().nextInt(EmbeddedDatabaseContext.CATEGORIES - SHELVES);
+        return IntStream.range(first, first + SHELVES)
+                .mapToObj(category -> "Category " + category)
+                .toList();
+    }
+}
@@ -0,0 +1,86 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import id.my.hendisantika.springboot4sample.dto.PagedResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Serialization time of a product page per response format, with and without gzip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectMapper mapper;
+    private ApiResponse<PagedResponse<ProductResponse>> response;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        List<ProductResponse> content = BenchmarkData.responses(pageSize);
+        response = ApiResponse.success("Products retrieved successfully", PagedResponse.<ProductResponse>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(100_000L)
+                .totalPages(100_000 / pageSize)
+                .first(true)
+                .last(false)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] serializePagedResponse() {
+        byte[] body = mapper.writeValueAsBytes(response);
+        return encoding.equals("gzip") ? gzip(body) : body;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
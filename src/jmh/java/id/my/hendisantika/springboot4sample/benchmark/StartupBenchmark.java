@@ -0,0 +1,144 @@
+package id.my.hendisantika.springboot4sample.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Time from launching the packaged application in a new JVM until {@code GET /products/{id}}
+ * first answers 200. Needs {@code ./mvnw -Paot package} and the database from {@code compose.yaml}.
+ * {@code jar} runs the fat jar as built; {@code aot} runs the extracted jar with Spring AOT and the
+ * class archive from the training run; {@code aot-lazy} adds the {@code lazy} profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    @Param({"jar", "aot", "aot-lazy"})
+    private String launch;
+
+    @Param("1")
+    private long productId;
+
+    /**
+     * Maps the archive written by the training run; {@code -XX:SharedArchiveFile=app.jsa} on JDK 21.
+     */
+    @Param("-XX:AOTCache=app.aot")
+    private String archiveOption;
+
+    /**
+     * Extra application arguments, separated by spaces.
+     */
+    @Param("")
+    private String appArgs;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private Process process;
+
+    @Benchmark
+    public int firstSuccessfulGet() throws Exception {
+        int port = freePort();
+        process = launch(port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1.0/products/" + productId))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+                if (status == 404) {
+                    throw new IllegalStateException("Product " + productId + " does not exist, pass -p productId=<id>");
+                }
+            } catch (ConnectException ex) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        throw new IllegalStateException("No successful response within " + STARTUP_TIMEOUT);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private Process launch(int port) throws IOException {
+        Path target = Path.of("target");
+        Path directory = launch.equals("jar") ? target : target.resolve("application");
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (!launch.equals("jar")) {
+            command.add(archiveOption);
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(applicationJar(directory).getFileName().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=" + (launch.equals("aot-lazy") ? "prod,lazy" : "prod"));
+        Arrays.stream(appArgs.split(" ")).filter(arg -> !arg.isBlank()).forEach(command::add);
+        return new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static Path applicationJar(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + directory
+                            + ", run ./mvnw -Paot package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.benchmark.BenchmarkData;
+import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private Product product;
+    private ProductRequest request;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(42);
+        request = BenchmarkData.request(42);
+    }
+
+    @Benchmark
+    public ProductResponse mapToResponse() {
+        return ProductService.mapToResponse(product);
+    }
+
+    @Benchmark
+    public Product mapToEntity() {
+        return ProductService.mapToEntity(request);
+    }
+}
@@ -0,0 +1,78 @@
+package id.my.hendisantika.springboot4sample.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Takes a {@link DatabaseBulkhead} permit for every connection handed out and gives it back when
+ * the connection is closed.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final DatabaseBulkhead bulkhead;
+
+    public BulkheadDataSource(DataSource targetDataSource, DatabaseBulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            bulkhead.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            bulkhead.release();
+            throw ex;
+        }
+    }
+
+    private Connection guard(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    boolean closing = method.getName().equals("close") && released.compareAndSet(false, true);
+                    try {
+                        if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                            return target;
+                        }
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    } finally {
+                        if (closing) {
+                            bulkhead.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package id.my.hendisantika.springboot4sample.bulkhead;
+
+import id.my.hendisantika.springboot4sample.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Fair semaphore sized to the connection pool. Callers queue here, where waiting is cheap for
+ * virtual threads and bounded by a timeout, instead of piling up inside the pool.
+ */
+@Slf4j
+public class DatabaseBulkhead implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DatabaseBulkhead(int maxConcurrent, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        log.warn("Database bulkhead full: {} connections in use, {} callers waiting",
+                maxConcurrent, permits.getQueueLength());
+        throw new ServiceUnavailableException("Database is busy, please retry shortly");
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.bulkhead.active", this, bulkhead -> bulkhead.maxConcurrent - bulkhead.permits.availablePermits())
+                .description("Connections currently checked out through the bulkhead")
+                .register(registry);
+        Gauge.builder("db.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a database permit")
+                .register(registry);
+        Gauge.builder("db.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .description("Maximum connections the bulkhead lets through at once")
+                .register(registry);
+        FunctionCounter.builder("db.bulkhead.rejected", rejected, AtomicLong::get)
+                .description("Callers rejected after waiting for a database permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,99 @@
+package id.my.hendisantika.springboot4sample.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Read-through access to the product caches that cannot be undone by a slow reader. Evictions run
+ * after commit, so a read that loaded the old row before the commit could otherwise put it back
+ * once the eviction is done and keep it for the whole TTL. Every eviction first bumps a striped
+ * generation counter; a load that sees the generation move while it ran returns its value to the
+ * caller but takes it out of the cache again.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final CacheManager cacheManager;
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+
+    /**
+     * Returns the entry cached under {@code key}, or loads and caches it. {@code id} is what
+     * evictions of the entry are keyed by; it differs from the key when one id owns several
+     * entries. A loader exception reaches the caller as is and nothing is cached.
+     */
+    public <T> T getOrLoad(String cacheName, Object key, Object id, Supplier<T> loader) {
+        Cache cache = cache(cacheName);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return cast(cached.get());
+        }
+        long generation = generation(cacheName, id);
+        T loaded = loader.get();
+        cache.put(key, loaded);
+        if (generation(cacheName, id) != generation) {
+            cache.evict(key);
+        }
+        return loaded;
+    }
+
+    public <T> T getOrLoad(String cacheName, Object key, Supplier<T> loader) {
+        return getOrLoad(cacheName, key, key, loader);
+    }
+
+    /**
+     * Returns the entry cached under {@code key}, or null without loading it.
+     */
+    public <T> T getIfPresent(String cacheName, Object key) {
+        Cache.ValueWrapper cached = cache(cacheName).get(key);
+        return cached != null ? cast(cached.get()) : null;
+    }
+
+    /**
+     * Invalidates the entries of {@code id}; the caller evicts them right after.
+     */
+    public void advance(String cacheName, Object id) {
+        stripes.incrementAndGet(stripe(cacheName, id));
+    }
+
+    public void evict(String cacheName, Object key) {
+        advance(cacheName, key);
+        cache(cacheName).evict(key);
+    }
+
+    private long generation(String cacheName, Object id) {
+        return stripes.get(stripe(cacheName, id));
+    }
+
+    private Cache cache(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName), cacheName);
+    }
+
+    // Entries of a cache are only ever written by getOrLoad with the type its callers read back
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static int stripe(String cacheName, Object id) {
+        return (31 * cacheName.hashCode() + id.hashCode()) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,21 @@
+package id.my.hendisantika.springboot4sample.cache;
+
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
+import org.springframework.http.MediaType;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * An {@code ApiResponse} envelope already encoded as {@code contentType}, without its
+ * {@code timestamp}. {@code version} is the version of the rows in it, for the validators.
+ */
+public record EncodedResponse(MediaType contentType, byte[] body, ProductVersion version) {
+}
@@ -0,0 +1,132 @@
+package id.my.hendisantika.springboot4sample.cache;
+
+import id.my.hendisantika.springboot4sample.config.CacheConfig;
+import id.my.hendisantika.springboot4sample.config.ProductCacheProperties;
+import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Keeps the encoded {@code ApiResponse} bytes of single products and category lists per content
+ * type, so hot reads skip mapping and Jackson entirely. Entries are encoded without the envelope
+ * {@code timestamp}; {@link EncodedResponseHttpMessageConverter} splices the current one into JSON
+ * and binary formats go out without it. {@link ProductCacheInvalidator} evicts entries after commit,
+ * and loads go through {@link CacheGenerations} so one that overlapped an eviction does not leave
+ * bytes older than the committed rows in the cache. The loaders read the database, not the
+ * {@code ProductResponse} caches.
+ */
+@Component
+@RequiredArgsConstructor
+public class EncodedResponseCache {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final List<MediaType> MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations cacheGenerations;
+    private final ProductCacheProperties properties;
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+
+    /**
+     * Picks the encoding for the {@code Accept} header, or empty when the regular message
+     * converters should handle the request (disabled, or no cached format is acceptable).
+     */
+    public Optional<MediaType> negotiate(List<MediaType> accept) {
+        if (!properties.isEncodedPayloads()) {
+            return Optional.empty();
+        }
+        if (accept.isEmpty()) {
+            return Optional.of(MediaType.APPLICATION_JSON);
+        }
+        return accept.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(requested -> requested.getQualityValue() > 0)
+                .flatMap(requested -> MEDIA_TYPES.stream().filter(requested::includes))
+                .findFirst();
+    }
+
+    public EncodedResponse product(Long id, MediaType contentType, Supplier<ProductResponse> loader) {
+        return getOrEncode(CacheConfig.PRODUCT_PAYLOADS, new Key(id, contentType), () -> {
+            ProductResponse product = loader.get();
+            return encode(contentType, "Operation successful", product, ProductVersion.of(product));
+        });
+    }
+
+    public EncodedResponse category(String category, MediaType contentType, Supplier<List<ProductResponse>> loader) {
+        return getOrEncode(CacheConfig.CATEGORY_PAYLOADS, new Key(category, contentType), () -> {
+            List<ProductResponse> products = loader.get();
+            return encode(contentType, "Products retrieved successfully", products, ProductVersion.of(products));
+        });
+    }
+
+    public void evictProduct(Long id) {
+        evict(CacheConfig.PRODUCT_PAYLOADS, id);
+    }
+
+    public void evictCategory(String category) {
+        evict(CacheConfig.CATEGORY_PAYLOADS, category);
+    }
+
+    /**
+     * Loads outside the cache so a {@code ResourceNotFoundException} from the loader reaches the
+     * exception handler as is instead of wrapped in a {@code ValueRetrievalException}. If the key
+     * was evicted while loading, the loaded bytes may predate that change: they are still returned
+     * to this caller, which raced the write anyway, but taken out of the cache again.
+     */
+    private EncodedResponse getOrEncode(String cacheName, Key key, Supplier<EncodedResponse> encoder) {
+        return cacheGenerations.getOrLoad(cacheName, key, key.id(), encoder);
+    }
+
+    private EncodedResponse encode(MediaType contentType, String message, Object data, ProductVersion version) {
+        ApiResponse<Object> envelope = ApiResponse.builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .build();
+        return new EncodedResponse(contentType, mapper(contentType).writeValueAsBytes(envelope), version);
+    }
+
+    private ObjectMapper mapper(MediaType contentType) {
+        if (contentType.equals(MediaType.APPLICATION_CBOR)) {
+            return cborMapper;
+        }
+        return contentType.equals(APPLICATION_SMILE) ? smileMapper : jsonMapper;
+    }
+
+    private void evict(String cacheName, Object id) {
+        cacheGenerations.advance(cacheName, id);
+        Cache cache = cacheManager.getCache(cacheName);
+        MEDIA_TYPES.forEach(contentType -> cache.evict(new Key(id, contentType)));
+    }
+
+    private record Key(Object id, MediaType contentType) {
+    }
+}
@@ -0,0 +1,68 @@
+package id.my.hendisantika.springboot4sample.cache;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Writes an {@link EncodedResponse} straight to the response stream. For JSON the current
+ * {@code timestamp} field is spliced in before the closing brace of the cached envelope.
+ */
+public class EncodedResponseHttpMessageConverter extends AbstractHttpMessageConverter<EncodedResponse> {
+
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+
+    private final JsonMapper jsonMapper;
+
+    public EncodedResponseHttpMessageConverter(JsonMapper jsonMapper) {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, EncodedResponseCache.APPLICATION_SMILE);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedResponse readInternal(Class<? extends EncodedResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Encoded responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(EncodedResponse response, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        byte[] encoded = response.body();
+        if (!response.contentType().equals(MediaType.APPLICATION_JSON)) {
+            body.write(encoded);
+            return;
+        }
+        body.write(encoded, 0, encoded.length - 1);
+        body.write(TIMESTAMP_FIELD);
+        body.write(jsonMapper.writeValueAsBytes(LocalDateTime.now()));
+        body.write('}');
+    }
+}
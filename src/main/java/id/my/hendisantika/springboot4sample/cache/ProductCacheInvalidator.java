@@ -0,0 +1,65 @@
+package id.my.hendisantika.springboot4sample.cache;
+
+import id.my.hendisantika.springboot4sample.config.CacheConfig;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Evicts only the cache entries a committed change can affect: the product itself, the old and
+ * new category lists, and the active list when the product was or is active. Encoded payloads of
+ * the product and its categories go with them. Every eviction goes through {@link CacheGenerations},
+ * so a read that loaded the old row before the commit cannot put it back afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidator {
+
+    private final CacheGenerations cacheGenerations;
+    private final EncodedResponseCache encodedResponseCache;
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(CacheConfig.PRODUCTS, event.productId());
+        encodedResponseCache.evictProduct(event.productId());
+
+        Stream.of(event.before(), event.after())
+                .filter(Objects::nonNull)
+                .map(ProductResponse::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(category -> {
+                    evict(CacheConfig.PRODUCTS_BY_CATEGORY, category);
+                    encodedResponseCache.evictCategory(category);
+                });
+
+        boolean affectsActive = Stream.of(event.before(), event.after())
+                .filter(Objects::nonNull)
+                .anyMatch(product -> Boolean.TRUE.equals(product.getIsActive()));
+        if (affectsActive) {
+            cacheGenerations.evict(CacheConfig.ACTIVE_PRODUCTS, CacheConfig.ACTIVE_PRODUCTS_KEY);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        log.debug("Evicting {} from cache {}", key, cacheName);
+        cacheGenerations.evict(cacheName, key);
+    }
+}
@@ -0,0 +1,524 @@
+package id.my.hendisantika.springboot4sample.catalog;
+
+import id.my.hendisantika.springboot4sample.config.CatalogSnapshotProperties;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * In-memory columnar copy of the fields products are filtered on. Each product owns a slot in
+ * primitive columns (id, price in cents, quantity, dictionary-encoded category) and a bit in the
+ * live, active and in-stock bitsets. A filter intersects those bitsets with masks built in one pass
+ * over the category and price columns when they are filtered on. Flag facets are popcounts of the
+ * intersections, and category facets are counted in one pass over the matching slots, so memory and
+ * work grow with the number of products, not with products times categories. Nothing is boxed per
+ * row. The snapshot is built in the background on startup into fresh columns and kept current from
+ * committed {@link ProductChangedEvent}s.
+ * <p>
+ * Those events can arrive in a different order than their commits. Every slot keeps the version it
+ * was written with and an event carrying an older one is dropped; deleted ids are kept as
+ * tombstones (about 24 bytes each, for the life of the process, since ids are never reused) so a
+ * late update cannot bring a deleted product back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshot {
+
+    private final ProductRepository productRepository;
+    private final CatalogSnapshotProperties properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ProductChangedEvent> changedDuringRebuild = new ArrayList<>();
+    private final LongIntHashMap tombstones = new LongIntHashMap(16);
+    private Columns columns = new Columns(16, tombstones);
+    private volatile boolean ready;
+    private boolean rebuilding;
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (properties.isEnabled()) {
+            Thread.ofVirtual().name("catalog-snapshot-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Loads every product into new columns and swaps them in. Changes committed meanwhile are applied
+     * to the current columns as usual and replayed onto the new ones before the swap, where the
+     * version check drops those the load already saw. Tombstoned ids a lagging read still returned
+     * are removed again.
+     */
+    public void rebuild() {
+        log.info("Rebuilding catalog snapshot");
+        write(() -> {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        });
+        try {
+            Columns fresh = new Columns(Math.max(16, (int) Math.min(Integer.MAX_VALUE / 2, productRepository.count())),
+                    tombstones);
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<ProductResponse> window;
+            do {
+                window = productRepository.findAllBy(position, Sort.by("id"), Limit.of(properties.getRebuildBatchSize()))
+                        .map(product -> ProductResponse.builder()
+                                .id(product.getId())
+                                .price(product.getPrice())
+                                .quantity(product.getQuantity())
+                                .category(product.getCategory())
+                                .isActive(product.getIsActive())
+                                .version(product.getVersion())
+                                .build());
+                window.forEach(fresh::upsert);
+                if (!window.isEmpty()) {
+                    position = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).forward();
+                }
+            } while (window.hasNext());
+            write(() -> {
+                changedDuringRebuild.forEach(fresh::apply);
+                tombstones.forEachKey(fresh::remove);
+                columns = fresh;
+            });
+            ready = true;
+            log.info("Catalog snapshot rebuilt with {} products", fresh.slots.size());
+        } catch (RuntimeException ex) {
+            log.error("Catalog snapshot rebuild failed, product filtering stays unavailable", ex);
+        } finally {
+            write(() -> {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        write(() -> {
+            columns.apply(event);
+            if (rebuilding) {
+                changedDuringRebuild.add(event);
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of the requested page, the number of matches and facet counts. Each facet is
+     * counted with every filter except its own, so a client can show how many products picking
+     * another value would give.
+     */
+    public Result filter(ProductFilter filter) {
+        long window = (long) (filter.page() + 1) * filter.size();
+        if (window > properties.getMaxWindow()) {
+            throw new BadRequestException("Filter pages are limited to the first " + properties.getMaxWindow()
+                    + " matches, narrow the filter instead");
+        }
+        lock.readLock().lock();
+        try {
+            return columns.filter(filter, (int) window);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    public record Result(List<Long> ids, long totalElements, Map<String, Long> categories,
+                         long active, long inactive, long inStock, long outOfStock) {
+    }
+
+    /**
+     * The columns and bitsets. Slots of deleted products are reused by the next insert. Category
+     * codes are never reused, so the dictionary keeps categories whose products are all gone. The
+     * tombstones are shared with the columns of later rebuilds.
+     */
+    static final class Columns {
+
+        private final LongIntHashMap slots;
+        private final LongIntHashMap tombstones;
+        private final Map<String, Integer> categoryCodes = new HashMap<>();
+        private final List<String> categoryNames = new ArrayList<>();
+        private long[] ids;
+        private long[] versions;
+        private long[] prices;
+        private int[] quantities;
+        private int[] categories;
+        private long[] live;
+        private long[] active;
+        private long[] inStock;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+        private int used;
+
+        Columns(int capacity, LongIntHashMap tombstones) {
+            this.slots = new LongIntHashMap(capacity);
+            this.tombstones = tombstones;
+            ids = new long[capacity];
+            versions = new long[capacity];
+            prices = new long[capacity];
+            quantities = new int[capacity];
+            categories = new int[capacity];
+            live = new long[words(capacity)];
+            active = new long[words(capacity)];
+            inStock = new long[words(capacity)];
+        }
+
+        /**
+         * Applies a committed change unless it is already superseded: any change to a deleted
+         * product, or an update older than the version the slot holds.
+         */
+        void apply(ProductChangedEvent event) {
+            long id = event.productId();
+            if (tombstones.get(id) >= 0) {
+                return;
+            }
+            if (event.after() == null) {
+                tombstones.put(id, 0);
+                remove(id);
+                return;
+            }
+            int slot = slots.get(id);
+            long version = versionOf(event.after());
+            if (slot >= 0 && version >= 0 && version <= versions[slot]) {
+                return;
+            }
+            upsert(event.after());
+        }
+
+        void upsert(ProductResponse product) {
+            int slot = slots.get(product.getId());
+            if (slot < 0) {
+                slot = allocate();
+                slots.put(product.getId(), slot);
+                ids[slot] = product.getId();
+                set(live, slot, true);
+            }
+            versions[slot] = versionOf(product);
+            prices[slot] = product.getPrice() != null ? toCents(product.getPrice(), RoundingMode.HALF_UP) : 0;
+            quantities[slot] = product.getQuantity() != null ? product.getQuantity() : 0;
+            categories[slot] = codeOf(product.getCategory());
+            set(active, slot, Boolean.TRUE.equals(product.getIsActive()));
+            set(inStock, slot, quantities[slot] > 0);
+        }
+
+        void remove(long id) {
+            int slot = slots.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            set(live, slot, false);
+            set(active, slot, false);
+            set(inStock, slot, false);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        Result filter(ProductFilter filter, int window) {
+            int words = words(used);
+            long[] categoryMask = categoryMask(filter, words);
+            long[] priceMask = priceMask(filter, words);
+
+            long[] matches = base(words, categoryMask, priceMask, filter.active(), filter.inStock());
+            long[] withoutCategory = categoryMask == null ? matches
+                    : base(words, null, priceMask, filter.active(), filter.inStock());
+            long[] withoutActive = filter.active() == null ? matches
+                    : base(words, categoryMask, priceMask, null, filter.inStock());
+            long[] withoutStock = filter.inStock() == null ? matches
+                    : base(words, categoryMask, priceMask, filter.active(), null);
+
+            long[] categoryCounts = new long[categoryNames.size()];
+            for (int w = 0; w < words; w++) {
+                for (long bits = withoutCategory[w]; bits != 0; bits &= bits - 1) {
+                    int code = categories[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                    if (code >= 0) {
+                        categoryCounts[code]++;
+                    }
+                }
+            }
+            Map<String, Long> categoryFacets = new LinkedHashMap<>();
+            for (int code = 0; code < categoryCounts.length; code++) {
+                if (categoryCounts[code] > 0) {
+                    categoryFacets.put(categoryNames.get(code), categoryCounts[code]);
+                }
+            }
+            long activeCount = countAnd(withoutActive, active, words);
+            long inStockCount = countAnd(withoutStock, inStock, words);
+            return new Result(page(matches, words, filter, window), count(matches, words), categoryFacets,
+                    activeCount, count(withoutActive, words) - activeCount,
+                    inStockCount, count(withoutStock, words) - inStockCount);
+        }
+
+        private long[] categoryMask(ProductFilter filter, int words) {
+            if (filter.categories().isEmpty()) {
+                return null;
+            }
+            boolean[] wanted = new boolean[categoryNames.size()];
+            boolean known = false;
+            for (String category : filter.categories()) {
+                Integer code = categoryCodes.get(category);
+                if (code != null) {
+                    wanted[code] = true;
+                    known = true;
+                }
+            }
+            long[] mask = new long[words];
+            if (!known) {
+                return mask;
+            }
+            for (int w = 0; w < words; w++) {
+                for (long bits = live[w]; bits != 0; bits &= bits - 1) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (categories[slot] >= 0 && wanted[categories[slot]]) {
+                        mask[w] |= 1L << slot;
+                    }
+                }
+            }
+            return mask;
+        }
+
+        private long[] priceMask(ProductFilter filter, int words) {
+            if (filter.minPrice() == null && filter.maxPrice() == null) {
+                return null;
+            }
+            long min = filter.minPrice() != null ? toCents(filter.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = filter.maxPrice() != null ? toCents(filter.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            long[] mask = new long[words];
+            for (int w = 0; w < words; w++) {
+                for (long bits = live[w]; bits != 0; bits &= bits - 1) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (prices[slot] >= min && prices[slot] <= max) {
+                        mask[w] |= 1L << slot;
+                    }
+                }
+            }
+            return mask;
+        }
+
+        private long[] base(int words, long[] categoryMask, long[] priceMask, Boolean activeFilter, Boolean inStockFilter) {
+            long[] mask = Arrays.copyOf(live, words);
+            for (int w = 0; w < words; w++) {
+                long bits = mask[w];
+                if (categoryMask != null) {
+                    bits &= categoryMask[w];
+                }
+                if (priceMask != null) {
+                    bits &= priceMask[w];
+                }
+                if (activeFilter != null) {
+                    bits &= activeFilter ? active[w] : ~active[w];
+                }
+                if (inStockFilter != null) {
+                    bits &= inStockFilter ? inStock[w] : ~inStock[w];
+                }
+                mask[w] = bits;
+            }
+            return mask;
+        }
+
+        /**
+         * Keeps the first {@code window} matches in sort order in a bounded max-heap of slots, whose root
+         * is the last of them, and returns the ids of the requested page.
+         */
+        private List<Long> page(long[] matches, int words, ProductFilter filter, int window) {
+            int[] heap = new int[window];
+            int size = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = matches[w]; bits != 0; bits &= bits - 1) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (size < window) {
+                        heap[size] = slot;
+                        siftUp(heap, size++, filter);
+                    } else if (compare(slot, heap[0], filter) < 0) {
+                        heap[0] = slot;
+                        siftDown(heap, size, filter);
+                    }
+                }
+            }
+            int offset = filter.page() * filter.size();
+            List<Long> page = new ArrayList<>(Math.max(0, size - offset));
+            int[] sorted = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[i];
+                siftDown(heap, i, filter);
+            }
+            for (int i = offset; i < size; i++) {
+                page.add(ids[sorted[i]]);
+            }
+            return page;
+        }
+
+        private void siftUp(int[] heap, int index, ProductFilter filter) {
+            int slot = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(slot, heap[parent], filter) <= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = slot;
+        }
+
+        private void siftDown(int[] heap, int size, ProductFilter filter) {
+            if (size == 0) {
+                return;
+            }
+            int slot = heap[0];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && compare(heap[child + 1], heap[child], filter) > 0) {
+                    child++;
+                }
+                if (compare(heap[child], slot, filter) <= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = slot;
+        }
+
+        /**
+         * Orders slots by the sort key in the requested direction, then by id.
+         */
+        private int compare(int a, int b, ProductFilter filter) {
+            int byKey = switch (filter.sortKey()) {
+                case ID -> 0;
+                case PRICE -> Long.compare(prices[a], prices[b]);
+                case QUANTITY -> Integer.compare(quantities[a], quantities[b]);
+            };
+            if (byKey != 0) {
+                return filter.ascending() ? byKey : -byKey;
+            }
+            int byId = Long.compare(ids[a], ids[b]);
+            return filter.sortKey() == ProductFilter.SortKey.ID && !filter.ascending() ? -byId : byId;
+        }
+
+        private int codeOf(String category) {
+            if (category == null) {
+                return -1;
+            }
+            Integer code = categoryCodes.get(category);
+            if (code == null) {
+                code = categoryNames.size();
+                categoryCodes.put(category, code);
+                categoryNames.add(category);
+            }
+            return code;
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (used == ids.length) {
+                grow(ids.length * 2);
+            }
+            return used++;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            live = Arrays.copyOf(live, words(capacity));
+            active = Arrays.copyOf(active, words(capacity));
+            inStock = Arrays.copyOf(inStock, words(capacity));
+        }
+
+        /**
+         * The product's version, or -1 when it has none; such a write is always applied.
+         */
+        private static long versionOf(ProductResponse product) {
+            return product.getVersion() != null ? product.getVersion() : -1;
+        }
+
+        private static void set(long[] bits, int slot, boolean value) {
+            if (value) {
+                bits[slot >>> 6] |= 1L << slot;
+            } else {
+                bits[slot >>> 6] &= ~(1L << slot);
+            }
+        }
+
+        private static long count(long[] bits, int words) {
+            long count = 0;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(bits[w]);
+            }
+            return count;
+        }
+
+        private static long countAnd(long[] a, long[] b, int words) {
+            long count = 0;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(a[w] & b[w]);
+            }
+            return count;
+        }
+
+        private static int words(int slots) {
+            return (slots + 63) >>> 6;
+        }
+    }
+}
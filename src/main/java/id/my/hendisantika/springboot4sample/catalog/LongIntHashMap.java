@@ -0,0 +1,125 @@
+package id.my.hendisantika.springboot4sample.catalog;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Open-addressing map from product id to snapshot slot, two primitive arrays and no entry objects.
+ * Ids must be positive; zero marks an empty bucket. Removal shifts the following entries back, so
+ * lookups never have to skip tombstones. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the slot mapped to {@code key}, or -1.
+     */
+    int get(long key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Product id must be positive: " + key);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int i = index(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            size++;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /**
+     * Removes {@code key} and returns its slot, or -1 when it was not mapped.
+     */
+    int remove(long key) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            boolean homeBetweenGapAndJ = gap <= j ? gap < home && home <= j : gap < home || home <= j;
+            if (!homeBetweenGapAndJ) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEachKey(LongConsumer action) {
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,50 @@
+package id.my.hendisantika.springboot4sample.catalog;
+
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Filters of {@code GET /products/filter}. Null or empty values do not restrict the result; several
+ * categories match any of them. Price bounds are inclusive.
+ */
+public record ProductFilter(Set<String> categories, Boolean active, Boolean inStock, BigDecimal minPrice,
+                            BigDecimal maxPrice, SortKey sortKey, boolean ascending, int page, int size) {
+
+    public ProductFilter {
+        categories = categories == null ? Set.of() : Set.copyOf(categories);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        if (page < 0 || size < 1) {
+            throw new BadRequestException("page must not be negative and size must be at least 1");
+        }
+    }
+
+    public enum SortKey {
+        ID,
+        PRICE,
+        QUANTITY;
+
+        public static SortKey parse(String sortBy) {
+            return Arrays.stream(values())
+                    .filter(key -> key.name().equalsIgnoreCase(sortBy))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Unsupported filter sort: "
+                            + sortBy.toLowerCase(Locale.ROOT) + ", expected id, price or quantity"));
+        }
+    }
+}
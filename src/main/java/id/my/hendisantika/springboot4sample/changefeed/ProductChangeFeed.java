@@ -0,0 +1,333 @@
+package id.my.hendisantika.springboot4sample.changefeed;
+
+import id.my.hendisantika.springboot4sample.config.ChangeFeedProperties;
+import id.my.hendisantika.springboot4sample.dto.ProductChangeResponse;
+import id.my.hendisantika.springboot4sample.entity.ProductOutboxEvent;
+import id.my.hendisantika.springboot4sample.event.ProductChangesRelayedEvent;
+import id.my.hendisantika.springboot4sample.exception.ServiceUnavailableException;
+import id.my.hendisantika.springboot4sample.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Relays the product outbox to server-sent event subscribers. One poller per instance reads new
+ * rows in batches into a bounded in-memory buffer, and every subscriber is served from that
+ * buffer, so the number of subscribers does not change the database load. Only subscribers that
+ * resume from a sequence older than the buffer read the outbox, in batches, until they catch up.
+ * <p>
+ * Sequence numbers come from an auto-increment column and are visible in commit order, not
+ * allocation order. When the next expected number is missing for longer than
+ * {@code app.change-feed.gap-timeout}, the relay takes a locking read over the gap, which waits for
+ * the transactions still holding those ids. It moves past the gap only when that read finds no row,
+ * i.e. the ids were rolled back; otherwise it retries on later polls, however long the commit takes.
+ * <p>
+ * Every accepted batch is also published in-process as a {@link ProductChangesRelayedEvent}, so
+ * local read models see the writes of the other instances.
+ */
+@Component
+@Slf4j
+public class ProductChangeFeed implements DisposableBean {
+
+    private static final String EVENT_NAME = "products";
+
+    private final ProductOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate gapCheck;
+    private final ChangeFeedProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private final List<ProductChangeResponse> buffer = new ArrayList<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService relay;
+    private final ExecutorService senders;
+    private final Counter relayed;
+    private volatile long floor;
+    private volatile long watermark;
+    private long gapAt;
+    private long gapSince;
+
+    public ProductChangeFeed(ProductOutboxRepository outboxRepository, TransactionTemplate transactionTemplate,
+                             ChangeFeedProperties properties, ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        // read-write so it runs on the primary; read committed so the locking read takes no gap locks
+        this.gapCheck = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.gapCheck.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.relay = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("change-feed-relay").factory());
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-send-", 0).factory());
+        Gauge.builder("change.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("change.feed.sequence", this, feed -> feed.watermark)
+                .description("Latest outbox sequence number relayed to subscribers")
+                .register(meterRegistry);
+        this.relayed = Counter.builder("change.feed.relayed")
+                .description("Outbox rows read by the relay")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelay() {
+        long latest = outboxRepository.findMaxId();
+        floor = latest;
+        watermark = latest;
+        long interval = properties.getPollInterval().toMillis();
+        relay.scheduleWithFixedDelay(this::pollQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::heartbeat, properties.getHeartbeatInterval().toMillis(),
+                properties.getHeartbeatInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Product change feed relaying from sequence {}", latest);
+    }
+
+    /**
+     * Opens a subscription that receives every change after {@code since}, or only new changes
+     * when {@code since} is null.
+     */
+    public SseEmitter subscribe(Long since) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceUnavailableException("Too many change feed subscribers, please retry shortly");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getSubscriptionTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since != null ? since : watermark);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    void poll() {
+        List<ProductOutboxEvent> rows = outboxRepository.findByIdGreaterThanOrderById(watermark,
+                Limit.of(properties.getBatchSize()));
+        List<ProductChangeResponse> accepted = new ArrayList<>(rows.size());
+        long next = watermark;
+        for (ProductOutboxEvent row : rows) {
+            if (row.getId() != next + 1 && !gapRolledBack(next + 1, row.getId())) {
+                break;
+            }
+            accepted.add(mapToResponse(row));
+            next = row.getId();
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        relayed.increment(accepted.size());
+        bufferLock.writeLock().lock();
+        try {
+            buffer.addAll(accepted);
+            int overflow = buffer.size() - properties.getBufferSize();
+            if (overflow > 0) {
+                floor = buffer.get(overflow - 1).getSequence();
+                buffer.subList(0, overflow).clear();
+            }
+            watermark = next;
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+        subscribers.forEach(this::schedule);
+        eventPublisher.publishEvent(new ProductChangesRelayedEvent(List.copyOf(accepted)));
+    }
+
+    /**
+     * Removes outbox rows older than {@code app.change-feed.retention}.
+     */
+    @Scheduled(cron = "${app.change-feed.purge-cron}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteOlderThan(cutoff));
+        log.info("Purged {} outbox rows older than {}", purged, cutoff);
+    }
+
+    @Override
+    public void destroy() {
+        relay.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    /**
+     * Whether the missing ids {@code from} (inclusive) to {@code to} (exclusive) are known to be rolled
+     * back. They are only checked once {@code from} has been missing for the gap timeout.
+     */
+    private boolean gapRolledBack(long from, long to) {
+        long now = System.nanoTime();
+        if (gapAt != from) {
+            gapAt = from;
+            gapSince = now;
+            return false;
+        }
+        if (now - gapSince < properties.getGapTimeout().toNanos()) {
+            return false;
+        }
+        List<Long> committed;
+        try {
+            committed = gapCheck.execute(status -> outboxRepository.lockIdsInRange(from, to));
+        } catch (RuntimeException ex) {
+            log.warn("Could not check outbox sequences {} to {}, retrying: {}", from, to - 1, ex.getMessage());
+            return false;
+        }
+        if (committed != null && !committed.isEmpty()) {
+            log.debug("Outbox sequences {} committed late, relaying them on the next poll", committed);
+            return false;
+        }
+        log.warn("Outbox sequences {} to {} were rolled back, moving past them", from, to - 1);
+        return true;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            log.error("Change feed relay poll failed, retrying", ex);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            senders.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | RuntimeException ex) {
+                    drop(subscriber, ex);
+                }
+            });
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Sends everything after the subscriber's position in batches. Runs on its own virtual thread,
+     * so a slow client only holds up itself.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscriber.position < watermark) {
+                List<ProductChangeResponse> batch = changesAfter(subscriber.position);
+                if (batch.isEmpty()) {
+                    // everything up to the buffer was purged or skipped
+                    subscriber.position = Math.max(subscriber.position, floor);
+                    continue;
+                }
+                long last = batch.getLast().getSequence();
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(Long.toString(last))
+                        .name(EVENT_NAME)
+                        .data(batch, MediaType.APPLICATION_JSON));
+                subscriber.position = last;
+            }
+        } catch (IOException | RuntimeException ex) {
+            drop(subscriber, ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.position < watermark && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private List<ProductChangeResponse> changesAfter(long position) {
+        int limit = properties.getBatchSize();
+        bufferLock.readLock().lock();
+        try {
+            if (position >= floor) {
+                int from = firstAfter(position);
+                return List.copyOf(buffer.subList(from, Math.min(from + limit, buffer.size())));
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        return outboxRepository.findByIdBetweenOrderById(position + 1, floor, Limit.of(limit))
+                .stream()
+                .map(ProductChangeFeed::mapToResponse)
+                .toList();
+    }
+
+    private int firstAfter(long position) {
+        int low = 0;
+        int high = buffer.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.get(middle).getSequence() <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Dropping change feed subscriber: {}", cause.getMessage());
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private static ProductChangeResponse mapToResponse(ProductOutboxEvent row) {
+        return ProductChangeResponse.builder()
+                .sequence(row.getId())
+                .type(row.getChangeType())
+                .productId(row.getProductId())
+                .product(row.getPayload())
+                .occurredAt(row.getCreatedAt())
+                .build();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long position;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
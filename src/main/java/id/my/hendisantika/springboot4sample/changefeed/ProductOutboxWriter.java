@@ -0,0 +1,87 @@
+package id.my.hendisantika.springboot4sample.changefeed;
+
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Appends every product change to the outbox in the transaction that made it. Changes are
+ * collected per transaction and inserted as one JDBC batch just before it commits, so the rows
+ * commit or roll back with the product write and their sequence numbers are taken as late as
+ * possible.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductOutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_outbox (product_id, change_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        currentChanges().add(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductChangedEvent> currentChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Product changes must be published inside a transaction");
+        }
+        List<ProductChangedEvent> changes = (List<ProductChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<ProductChangedEvent> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductOutboxWriter.this);
+                }
+            });
+            changes = created;
+        }
+        return changes;
+    }
+
+    private void append(List<ProductChangedEvent> changes) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ProductResponse product = Objects.requireNonNullElse(change.after(), change.before());
+            ps.setLong(1, change.productId());
+            ps.setString(2, change.type().name());
+            ps.setString(3, objectMapper.writeValueAsString(product));
+            ps.setObject(4, now);
+        });
+        log.debug("Appended {} product changes to the outbox", changes.size());
+    }
+}
@@ -0,0 +1,33 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.access-log")
+public class AccessLogProperties {
+
+    /**
+     * Fraction of requests written to the access log, between 0 and 1. Server errors and slow
+     * requests are always written.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requests taking at least this long are always written.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+}
@@ -0,0 +1,25 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkProperties {
+
+    /**
+     * Number of items written per transaction and JDBC batch.
+     */
+    private int chunkSize = 500;
+}
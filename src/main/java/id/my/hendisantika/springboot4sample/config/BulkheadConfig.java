@@ -0,0 +1,50 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import id.my.hendisantika.springboot4sample.bulkhead.BulkheadDataSource;
+import id.my.hendisantika.springboot4sample.bulkhead.DatabaseBulkhead;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    public DatabaseBulkhead databaseBulkhead(BulkheadProperties properties, Environment environment) {
+        int maxConcurrent = properties.getMaxConcurrent() > 0
+                ? properties.getMaxConcurrent()
+                : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        return new DatabaseBulkhead(maxConcurrent, properties.getAcquireTimeout());
+    }
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new BulkheadDataSource(dataSource, bulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
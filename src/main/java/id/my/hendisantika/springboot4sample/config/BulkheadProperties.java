@@ -0,0 +1,37 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Whether concurrent JDBC work is bounded by the database bulkhead.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of connections checked out at once. Zero means the Hikari pool size.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * How long a caller waits for a permit before the request is rejected with 503.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,49 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_CATEGORY = "productsByCategory";
+    public static final String ACTIVE_PRODUCTS = "activeProducts";
+    public static final String PRODUCT_PAYLOADS = "productPayloads";
+    public static final String CATEGORY_PAYLOADS = "categoryPayloads";
+
+    /**
+     * The single key of {@link #ACTIVE_PRODUCTS}.
+     */
+    public static final String ACTIVE_PRODUCTS_KEY = "all";
+
+    private static final String DEFAULT_SPEC = "maximumSize=1000,expireAfterWrite=10m";
+
+    @Bean
+    public CacheManager cacheManager(ProductCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        for (String name : List.of(PRODUCTS, PRODUCTS_BY_CATEGORY, ACTIVE_PRODUCTS, PRODUCT_PAYLOADS, CATEGORY_PAYLOADS)) {
+            String spec = properties.getSpecs().getOrDefault(name, DEFAULT_SPEC);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+        return cacheManager;
+    }
+}
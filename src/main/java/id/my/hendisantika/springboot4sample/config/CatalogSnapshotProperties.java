@@ -0,0 +1,35 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+    /**
+     * Whether the columnar catalog snapshot is built and {@code GET /products/filter} is served.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of products loaded per round trip while the snapshot is rebuilt.
+     */
+    private int rebuildBatchSize = 5000;
+
+    /**
+     * Deepest row a filter page may reach ({@code (page + 1) * size}); sorting keeps this many rows.
+     */
+    private int maxWindow = 10_000;
+}
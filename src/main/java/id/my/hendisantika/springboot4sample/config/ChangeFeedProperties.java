@@ -0,0 +1,63 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * How often the relay reads new outbox rows.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Maximum outbox rows read per query and changes sent per event.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of recent changes kept in memory. Subscribers further behind catch up from the outbox.
+     */
+    private int bufferSize = 10_000;
+
+    /**
+     * How long a sequence number may be missing before the relay checks it with a locking read. Gaps
+     * are skipped only when that read shows they were rolled back, never because of the timeout.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum number of concurrent subscribers per instance.
+     */
+    private int maxSubscribers = 1000;
+
+    /**
+     * Interval of the keep-alive comments sent to idle subscribers.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Lifetime of one subscription. Clients reconnect with {@code Last-Event-ID} to resume.
+     */
+    private Duration subscriptionTimeout = Duration.ofMinutes(30);
+
+    /**
+     * How long outbox rows are kept for consumers that resume from an older sequence.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,36 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class ProductCacheProperties {
+
+    /**
+     * Caffeine spec per cache name, e.g. {@code maximumSize=10000,expireAfterWrite=10m}.
+     * Statistics are always recorded so hit, miss and eviction counts reach the metrics endpoint.
+     */
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+    /**
+     * Whether {@code GET /products/{id}} and {@code GET /products/category/{category}} keep their
+     * encoded response bytes per content type in the {@code productPayloads} and
+     * {@code categoryPayloads} caches.
+     */
+    private boolean encodedPayloads = true;
+}
@@ -0,0 +1,46 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import id.my.hendisantika.springboot4sample.ratelimit.AdaptiveConcurrencyLimiter;
+import id.my.hendisantika.springboot4sample.ratelimit.ClientRateLimiter;
+import id.my.hendisantika.springboot4sample.ratelimit.RateLimitFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new ClientRateLimiter(properties.getRate(), properties.getBurst(), properties.getMaxClients());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RateLimitProperties properties) {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        return new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+                concurrency.getMaxLimit(), concurrency.getLatencyThreshold(), concurrency.getBackoffRatio());
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(ClientRateLimiter clientRateLimiter,
+                                           ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                                           RateLimitProperties properties, JsonMapper jsonMapper) {
+        return new RateLimitFilter(clientRateLimiter, concurrencyLimiter.getIfAvailable(), properties, jsonMapper);
+    }
+}
@@ -0,0 +1,112 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether product endpoints are rate limited per client and guarded by the concurrency limit.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tokens each client earns per second.
+     */
+    private double rate = 50;
+
+    /**
+     * Tokens a client can save up and spend at once. A request never costs more than this.
+     */
+    private int burst = 100;
+
+    /**
+     * Request header identifying the client. Requests without it, or with a key not listed in
+     * {@link #apiKeys}, are keyed by remote address.
+     */
+    private String clientHeader = "X-API-Key";
+
+    /**
+     * API keys that get a bucket of their own. Any other value of the client header is ignored, so
+     * rotating made-up keys cannot earn fresh buckets.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Maximum number of clients whose buckets are kept. Idle buckets are dropped once they would
+     * have refilled anyway.
+     */
+    private long maxClients = 100_000;
+
+    /**
+     * Tokens taken by requests that match no entry in {@link #endpoints}.
+     */
+    private int defaultCost = 1;
+
+    /**
+     * Token cost per endpoint, first match wins.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * HTTP method, or empty for any method.
+         */
+        private String method;
+
+        /**
+         * Path pattern below the context path, e.g. {@code /{version}/products/search}.
+         */
+        private String path;
+
+        private int cost = 1;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        /**
+         * Whether requests beyond the adaptive concurrency limit are shed with 503.
+         */
+        private boolean enabled = true;
+
+        private int initialLimit = 50;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 500;
+
+        /**
+         * Latency per unit of cost above which a response counts as slow and shrinks the limit.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(250);
+
+        /**
+         * Factor the limit is multiplied by after a slow response.
+         */
+        private double backoffRatio = 0.9;
+    }
+}
@@ -0,0 +1,88 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import id.my.hendisantika.springboot4sample.datasource.ReadYourWritesFilter;
+import id.my.hendisantika.springboot4sample.datasource.ReplicaDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Read/write splitting. The application data source is a {@link LazyConnectionDataSourceProxy}
+ * over the primary pool that fetches the physical connection on first use. Inside a
+ * {@code readOnly} transaction, it takes the connection from the {@link ReplicaDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        connectionDetails.ifAvailable(details -> {
+            dataSource.setJdbcUrl(details.getJdbcUrl());
+            dataSource.setUsername(details.getUsername());
+            dataSource.setPassword(details.getPassword());
+            dataSource.setDriverClassName(details.getDriverClassName());
+        });
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               ReplicaProperties replicaProperties,
+                                               DataSourceProperties dataSourceProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = replicaProperties.getNodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, replicaProperties.getLoadBalancing(),
+                replicaProperties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow());
+    }
+}
@@ -0,0 +1,77 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.replica")
+public class ReplicaProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas below.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How read-only connections are spread over healthy replicas.
+     */
+    private LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN;
+
+    /**
+     * How often every replica is probed. Unhealthy replicas are skipped until a probe succeeds.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a replica may take to hand out a connection before the read falls back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Connection pool size per replica.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * After a write, reads from the same client go to the primary for this long. Zero disables it.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private List<Node> nodes = new ArrayList<>();
+
+    public enum LoadBalancing {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    @Data
+    public static class Node {
+
+        private String url;
+
+        /**
+         * Defaults to the primary's username.
+         */
+        private String username;
+
+        /**
+         * Defaults to the primary's password.
+         */
+        private String password;
+    }
+}
@@ -0,0 +1,30 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /**
+     * Whether product search is served from the in-process inverted index.
+     */
+    private boolean indexEnabled = true;
+
+    /**
+     * Number of products loaded per round trip while the index is rebuilt.
+     */
+    private int rebuildBatchSize = 1000;
+}
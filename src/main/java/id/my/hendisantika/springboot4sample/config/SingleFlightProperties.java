@@ -0,0 +1,40 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.single-flight")
+public class SingleFlightProperties {
+
+    /**
+     * Whether concurrent identical product reads share one repository call.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits for an in-flight call before the request is rejected with 503.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Wait timeout per call name ({@code product}, {@code productsByCategory}, {@code productLoad},
+     * {@code productsByCategoryLoad}), overriding {@link #timeout}.
+     */
+    private Map<String, Duration> timeouts = new LinkedHashMap<>();
+}
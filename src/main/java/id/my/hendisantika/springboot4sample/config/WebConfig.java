@@ -1,8 +1,26 @@
 package id.my.hendisantika.springboot4sample.config;
 
+import id.my.hendisantika.springboot4sample.cache.EncodedResponseHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerTypePredicate;
 import org.springframework.web.servlet.config.annotation.ApiVersionConfigurer;
+import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 /**
  * Created by IntelliJ IDEA.
@@ -16,8 +34,41 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * To change this template use File | Settings | File Templates.
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+
+    /**
+     * Boot configures no Smile mapper, so this one takes over what the {@code spring.jackson.*}
+     * customizers applied to the CBOR mapper: modules, time zone, locale, inclusion and feature flags.
+     * Smile responses then write dates and nulls the same way as JSON and CBOR.
+     */
+    @Bean
+    public SmileMapper smileMapper() {
+        SerializationConfig serialization = cborMapper.serializationConfig();
+        DeserializationConfig deserialization = cborMapper.deserializationConfig();
+        SmileMapper.Builder builder = SmileMapper.builder()
+                .addModules(cborMapper.registeredModules())
+                .defaultTimeZone(serialization.getTimeZone())
+                .defaultLocale(serialization.getLocale())
+                .changeDefaultPropertyInclusion(inclusion -> serialization.getDefaultPropertyInclusion());
+        for (MapperFeature feature : MapperFeature.values()) {
+            builder.configure(feature, serialization.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            builder.configure(feature, serialization.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            builder.configure(feature, deserialization.isEnabled(feature));
+        }
+        for (DateTimeFeature feature : DateTimeFeature.values()) {
+            builder.configure(feature, serialization.isEnabled(feature));
+        }
+        return builder.build();
+    }
+
     @Override
     public void configureApiVersioning(ApiVersionConfigurer configurer) {
         configurer
@@ -25,4 +76,24 @@ public class WebConfig implements WebMvcConfigurer {
                 .addSupportedVersions("1.0", "2.0")
                 .setDefaultVersion("1.0");
     }
+
+    /**
+     * Maps controllers under the version segment read above, e.g. {@code /v1.0/products}.
+     */
+    @Override
+    public void configurePathMatch(PathMatchConfigurer configurer) {
+        configurer.addPathPrefix("/{version}", HandlerTypePredicate.forAnnotation(RestController.class));
+    }
+
+    /**
+     * Adds CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) next to JSON.
+     * Clients pick one with the {@code Accept} header; JSON stays the default. Pre-encoded payloads
+     * from the response cache are written as they are.
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()))
+                .addCustomConverter(new EncodedResponseHttpMessageConverter(jsonMapper));
+    }
 }
@@ -0,0 +1,60 @@
+package id.my.hendisantika.springboot4sample.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Whether {@code PATCH /products/{id}} deltas are buffered and written in batches instead of one
+     * transaction per request.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum time a buffered delta waits before it is written.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Number of buffered products that triggers a flush before the interval elapses.
+     */
+    private int maxPending = 1000;
+
+    /**
+     * Number of lock stripes of the buffer, rounded up to a power of two.
+     */
+    private int stripes = 16;
+
+    /**
+     * Directory of the local journal segments.
+     */
+    private Path journalDir = Path.of("data", "write-behind");
+
+    /**
+     * Identifies this instance's journal in the checkpoint table. Must be unique per instance.
+     */
+    private String nodeId = "local";
+
+    /**
+     * Whether every journal append is forced to disk. Without it, buffered writes survive a process
+     * crash but not a power loss.
+     */
+    private boolean fsync = false;
+}
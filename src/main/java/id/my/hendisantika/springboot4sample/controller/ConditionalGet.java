@@ -0,0 +1,99 @@
+package id.my.hendisantika.springboot4sample.controller;
+
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * {@code If-None-Match} / {@code If-Modified-Since} handling for product reads. Only conditional
+ * requests pay for the aggregate {@link ProductVersion} query that lets handlers answer before
+ * loading and serializing rows. Full responses carry the version derived from the rows actually
+ * returned, so unconditional requests need no extra query. Sparse responses may leave out
+ * {@code id} and {@code updatedAt}, so they carry the version read with the aggregate query.
+ * Spring MVC turns a late match into a 304 before the body is written.
+ * <p>
+ * Lists are validated by entity tag only and carry no {@code Last-Modified}. The newest
+ * {@code updatedAt} of a list does not move when a row is deleted, deactivated or moved to another
+ * category, so a modification date cannot tell whether a list changed.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Whether the request carries a validator, i.e. whether reading the version up front can pay off.
+     */
+    static boolean isConditional(HttpHeaders requestHeaders) {
+        return !requestHeaders.getIfNoneMatch().isEmpty() || requestHeaders.getIfModifiedSince() >= 0;
+    }
+
+    static boolean isNotModified(HttpHeaders requestHeaders, ProductVersion version, String variant) {
+        if (!version.exists()) {
+            return false;
+        }
+        if (!requestHeaders.getIfNoneMatch().isEmpty()) {
+            return matchesETag(requestHeaders, version, variant);
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && version.lastModified() != null
+                && version.lastModifiedInstant().toEpochMilli() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Like {@link #isNotModified} for lists: {@code If-Modified-Since} is ignored.
+     */
+    static boolean isListNotModified(HttpHeaders requestHeaders, ProductVersion version, String variant) {
+        return version.exists() && matchesETag(requestHeaders, version, variant);
+    }
+
+    static <T> ResponseEntity<T> notModified(ProductVersion version, String variant) {
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version, variant).build();
+    }
+
+    static <T> ResponseEntity<T> listNotModified(ProductVersion version, String variant) {
+        return listValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version, variant).build();
+    }
+
+    static ResponseEntity.BodyBuilder ok(ProductVersion version, String variant) {
+        return validators(ResponseEntity.ok(), version, variant);
+    }
+
+    static ResponseEntity.BodyBuilder listOk(ProductVersion version, String variant) {
+        return listValidators(ResponseEntity.ok(), version, variant);
+    }
+
+    private static boolean matchesETag(HttpHeaders requestHeaders, ProductVersion version, String variant) {
+        ETag current = ETag.create(version.etag(variant));
+        return requestHeaders.getIfNoneMatch()
+                .stream()
+                .flatMap(value -> ETag.parse(value).stream())
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, ProductVersion version,
+                                                         String variant) {
+        listValidators(builder, version, variant);
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModifiedInstant());
+        }
+        return builder;
+    }
+
+    private static ResponseEntity.BodyBuilder listValidators(ResponseEntity.BodyBuilder builder,
+                                                             ProductVersion version, String variant) {
+        return builder.eTag(version.etag(variant)).varyBy(HttpHeaders.ACCEPT);
+    }
+}
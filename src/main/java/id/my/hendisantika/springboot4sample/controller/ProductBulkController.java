@@ -0,0 +1,107 @@
+package id.my.hendisantika.springboot4sample.controller;
+
+import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import id.my.hendisantika.springboot4sample.dto.BulkResponse;
+import id.my.hendisantika.springboot4sample.dto.BulkUpdateRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.service.BulkInput;
+import id.my.hendisantika.springboot4sample.service.ProductBulkService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@RestController
+@RequestMapping("/products/bulk")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBulkController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ProductBulkService productBulkService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(version = "1.0", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkResponse>> createProducts(
+            @RequestBody List<ProductRequest> requests,
+            @RequestParam(defaultValue = "false") boolean errorsOnly) {
+        log.debug("REST request to bulk create {} products", requests.size());
+        BulkResponse response = productBulkService.createProducts(requests.stream().map(BulkInput::of), errorsOnly);
+        return ResponseEntity.ok(ApiResponse.success("Bulk create processed", response));
+    }
+
+    @PostMapping(version = "1.0", consumes = NDJSON)
+    public ResponseEntity<ApiResponse<BulkResponse>> createProductsStream(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean errorsOnly) {
+        log.debug("REST request to bulk create products from NDJSON stream");
+        try (Stream<BulkInput<ProductRequest>> items = readNdjson(body, ProductRequest.class)) {
+            BulkResponse response = productBulkService.createProducts(items, errorsOnly);
+            return ResponseEntity.ok(ApiResponse.success("Bulk create processed", response));
+        }
+    }
+
+    @PutMapping(version = "1.0", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkResponse>> updateProducts(
+            @RequestBody List<BulkUpdateRequest> requests,
+            @RequestParam(defaultValue = "false") boolean errorsOnly) {
+        log.debug("REST request to bulk update {} products", requests.size());
+        BulkResponse response = productBulkService.updateProducts(requests.stream().map(BulkInput::of), errorsOnly);
+        return ResponseEntity.ok(ApiResponse.success("Bulk update processed", response));
+    }
+
+    @PutMapping(version = "1.0", consumes = NDJSON)
+    public ResponseEntity<ApiResponse<BulkResponse>> updateProductsStream(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean errorsOnly) {
+        log.debug("REST request to bulk update products from NDJSON stream");
+        try (Stream<BulkInput<BulkUpdateRequest>> items = readNdjson(body, BulkUpdateRequest.class)) {
+            BulkResponse response = productBulkService.updateProducts(items, errorsOnly);
+            return ResponseEntity.ok(ApiResponse.success("Bulk update processed", response));
+        }
+    }
+
+    @DeleteMapping(version = "1.0", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkResponse>> deleteProducts(
+            @RequestBody List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean errorsOnly) {
+        log.debug("REST request to bulk delete {} products", ids.size());
+        BulkResponse response = productBulkService.deleteProducts(ids.stream().map(BulkInput::of), errorsOnly);
+        return ResponseEntity.ok(ApiResponse.success("Bulk delete processed", response));
+    }
+
+    private <T> Stream<BulkInput<T>> readNdjson(InputStream body, Class<T> type) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return BulkInput.of(objectMapper.readValue(line, type));
+                    } catch (JacksonException ex) {
+                        return BulkInput.<T>invalid("Malformed JSON: " + ex.getOriginalMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,50 @@
+package id.my.hendisantika.springboot4sample.controller;
+
+import id.my.hendisantika.springboot4sample.changefeed.ProductChangeFeed;
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@RestController
+@RequestMapping("/products/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeController {
+
+    private final ProductChangeFeed productChangeFeed;
+
+    /**
+     * Streams product changes as server-sent events, each carrying a batch of changes and the
+     * sequence number of its last one as event id. Reconnecting clients resume from
+     * {@code Last-Event-ID}, which takes precedence over {@code since}.
+     */
+    @GetMapping(version = "1.0", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        Long position = lastEventId != null ? lastEventId : since;
+        log.debug("REST request to stream product changes since {}", position);
+        if (position != null && position < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        return productChangeFeed.subscribe(position);
+    }
+}
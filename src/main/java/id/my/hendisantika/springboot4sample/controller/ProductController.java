@@ -1,18 +1,48 @@
 package id.my.hendisantika.springboot4sample.controller;
 
+import id.my.hendisantika.springboot4sample.cache.EncodedResponse;
+import id.my.hendisantika.springboot4sample.cache.EncodedResponseCache;
+import id.my.hendisantika.springboot4sample.catalog.ProductFilter;
 import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import id.my.hendisantika.springboot4sample.dto.CategoryStatsResponse;
+import id.my.hendisantika.springboot4sample.dto.PageTotal;
 import id.my.hendisantika.springboot4sample.dto.PagedResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductDeltaRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductField;
+import id.my.hendisantika.springboot4sample.dto.ProductFilterResponse;
 import id.my.hendisantika.springboot4sample.dto.ProductRequest;
 import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
+import id.my.hendisantika.springboot4sample.dto.StockAdjustmentRequest;
+import id.my.hendisantika.springboot4sample.service.CategorySummaryService;
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+import id.my.hendisantika.springboot4sample.service.ProductDelta;
 import id.my.hendisantika.springboot4sample.service.ProductService;
+import id.my.hendisantika.springboot4sample.writebehind.WriteBehindBuffer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Created by IntelliJ IDEA.
@@ -31,12 +61,20 @@ import java.util.List;
 @Slf4j
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_BATCH_CATEGORIES = 50;
+    private static final int MAX_BATCH_LIMIT = 100;
+
     private final ProductService productService;
+    private final CategorySummaryService categorySummaryService;
+    private final ObjectProvider<WriteBehindBuffer> writeBehindBuffer;
+    private final EncodedResponseCache encodedResponseCache;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(version = "1.0")
     public ResponseEntity<ApiResponse<ProductResponse>> createProduct(
             @Valid @RequestBody ProductRequest request) {
-        log.info("REST request to create product: {}", request.getName());
+        log.debug("REST request to create product: {}", request.getName());
         ProductResponse response = productService.createProduct(request);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
@@ -44,17 +82,55 @@ public class ProductController {
     }
 
     @GetMapping(path = "/{id}", version = "1.0")
-    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable Long id) {
-        log.info("REST request to get product by ID: {}", id);
+    public ResponseEntity<?> getProductById(
+            @PathVariable Long id,
+            @RequestHeader HttpHeaders headers) {
+        log.debug("REST request to get product by ID: {}", id);
+        if (ConditionalGet.isConditional(headers)) {
+            ProductVersion version = productService.getProductVersion(id);
+            if (ConditionalGet.isNotModified(headers, version, "")) {
+                return ConditionalGet.notModified(version, "");
+            }
+        }
+        Optional<MediaType> encoding = encodedResponseCache.negotiate(headers.getAccept());
+        if (encoding.isPresent()) {
+            EncodedResponse encoded = encodedResponseCache.product(id, encoding.get(),
+                    () -> productService.loadProductById(id));
+            return ConditionalGet.ok(encoded.version(), "").contentType(encoding.get()).body(encoded);
+        }
         ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return ConditionalGet.ok(ProductVersion.of(response), "")
+                .body(ApiResponse.success(response));
     }
 
     @GetMapping(version = "1.0")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getAllProducts() {
-        log.info("REST request to get all products");
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getAllProducts(
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        log.debug("REST request to get all products");
+        String variant = Objects.toString(fields, "");
+        ProductVersion version = fields != null || ConditionalGet.isConditional(headers)
+                ? productService.getAllProductsVersion()
+                : null;
+        if (version != null && ConditionalGet.isListNotModified(headers, version, variant)) {
+            return ConditionalGet.listNotModified(version, variant);
+        }
+        List<ProductResponse> products = fields == null
+                ? productService.getAllProducts()
+                : productService.getAllProducts(ProductField.parse(fields));
+        return ConditionalGet.listOk(fields == null ? ProductVersion.of(products) : version, variant)
+                .body(ApiResponse.success("Products retrieved successfully", products));
+    }
+
+    @GetMapping(path = "/export", version = "1.0", produces = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("REST request to export products as {}", format);
+        boolean ndjson = !format.equalsIgnoreCase("json");
+        StreamingResponseBody body = outputStream -> writeExport(outputStream, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType(NDJSON) : MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping(path = "/paged", version = "1.0")
@@ -62,48 +138,225 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
-        log.info("REST request to get paged products - page: {}, size: {}", page, size);
-        PagedResponse<ProductResponse> response = productService.getAllProductsPaged(page, size, sortBy, sortDir);
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", response));
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "offset") String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestParam(required = false) String total) {
+        log.debug("REST request to get paged products - page: {}, size: {}, mode: {}, total: {}", page, size, mode, total);
+        boolean cursorMode = mode.equalsIgnoreCase("cursor") || cursor != null;
+        if (cursorMode && (activeOnly || total != null)) {
+            throw new BadRequestException("activeOnly and total are only supported in offset mode");
+        }
+        PagedResponse<ProductResponse> response = cursorMode
+                ? productService.getProductsByCursor(cursor, size, sortBy, sortDir)
+                : productService.getAllProductsPaged(page, size, sortBy, sortDir, activeOnly,
+                        total != null ? PageTotal.parse(total) : PageTotal.EXACT);
+        String variant = orderVariant(response.getContent()) + Objects.hash(response.getTotalElements(),
+                response.getTotalPages(), response.getNextCursor(), response.getPrevCursor());
+        return ConditionalGet.listOk(ProductVersion.of(response.getContent()), variant)
+                .body(ApiResponse.success("Products retrieved successfully", response));
     }
 
     @PutMapping(path = "/{id}", version = "1.0")
     public ResponseEntity<ApiResponse<ProductResponse>> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductRequest request) {
-        log.info("REST request to update product with ID: {}", id);
+        log.debug("REST request to update product with ID: {}", id);
         ProductResponse response = productService.updateProduct(id, request);
         return ResponseEntity.ok(ApiResponse.success("Product updated successfully", response));
     }
 
+    /**
+     * Applies a quantity and/or price delta. With write-behind enabled the delta is journaled and
+     * buffered, and the response is {@code 202 Accepted} without a body.
+     */
+    @PatchMapping(path = "/{id}", version = "1.0")
+    public ResponseEntity<ApiResponse<ProductResponse>> patchProduct(
+            @PathVariable Long id,
+            @Valid @RequestBody ProductDeltaRequest request) {
+        log.debug("REST request to patch product: {}", id);
+        if (request.getQuantityDelta() == null && request.getPrice() == null) {
+            throw new BadRequestException("Either quantityDelta or price is required");
+        }
+        ProductDelta delta = new ProductDelta(id, Objects.requireNonNullElse(request.getQuantityDelta(), 0),
+                request.getPrice());
+        WriteBehindBuffer buffer = writeBehindBuffer.getIfAvailable();
+        if (buffer != null) {
+            buffer.submit(delta);
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Product change accepted", null));
+        }
+        ProductResponse response = productService.patchProduct(delta);
+        return ResponseEntity.ok(ApiResponse.success("Product updated successfully", response));
+    }
+
+    @PostMapping(path = "/{id}/stock", version = "1.0")
+    public ResponseEntity<ApiResponse<ProductResponse>> adjustStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        log.debug("REST request to adjust stock of product {} by {}", id, request.getDelta());
+        ProductResponse response = productService.adjustStock(id, request.getDelta());
+        return ResponseEntity.ok(ApiResponse.success("Stock adjusted successfully", response));
+    }
+
     @DeleteMapping(path = "/{id}", version = "1.0")
     public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable Long id) {
-        log.info("REST request to delete product with ID: {}", id);
+        log.debug("REST request to delete product with ID: {}", id);
         productService.deleteProduct(id);
         return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", null));
     }
 
     @GetMapping(path = "/category/{category}", version = "1.0")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByCategory(
-            @PathVariable String category) {
-        log.info("REST request to get products by category: {}", category);
-        List<ProductResponse> products = productService.getProductsByCategory(category);
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        log.debug("REST request to get products by category: {}", category);
+        String variant = Objects.toString(fields, "");
+        ProductVersion version = fields != null || ConditionalGet.isConditional(headers)
+                ? productService.getProductsByCategoryVersion(category)
+                : null;
+        if (version != null && ConditionalGet.isListNotModified(headers, version, variant)) {
+            return ConditionalGet.listNotModified(version, variant);
+        }
+        Optional<MediaType> encoding = fields == null
+                ? encodedResponseCache.negotiate(headers.getAccept())
+                : Optional.empty();
+        if (encoding.isPresent()) {
+            EncodedResponse encoded = encodedResponseCache.category(category, encoding.get(),
+                    () -> productService.loadProductsByCategory(category));
+            return ConditionalGet.listOk(encoded.version(), variant).contentType(encoding.get()).body(encoded);
+        }
+        List<ProductResponse> products = fields == null
+                ? productService.getProductsByCategory(category)
+                : productService.getProductsByCategory(category, ProductField.parse(fields));
+        return ConditionalGet.listOk(fields == null ? ProductVersion.of(products) : version, variant)
+                .body(ApiResponse.success("Products retrieved successfully", products));
+    }
+
+    /**
+     * Products for several categories in one call, for pages that render a shelf per category.
+     */
+    @GetMapping(path = "/categories", version = "1.0")
+    public ResponseEntity<ApiResponse<Map<String, List<ProductResponse>>>> getProductsByCategories(
+            @RequestParam List<String> names,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean activeOnly) {
+        Set<String> categories = names.stream()
+                .map(String::strip)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.debug("REST request to get products for categories: {}", categories);
+        if (categories.isEmpty() || categories.size() > MAX_BATCH_CATEGORIES) {
+            throw new BadRequestException("Between 1 and " + MAX_BATCH_CATEGORIES + " category names are required");
+        }
+        if (limit < 1 || limit > MAX_BATCH_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_BATCH_LIMIT);
+        }
+        Map<String, List<ProductResponse>> products = productService.getProductsByCategories(categories, limit, activeOnly);
         return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
     }
 
+    @GetMapping(path = "/categories/stats", version = "1.0")
+    public ResponseEntity<ApiResponse<List<CategoryStatsResponse>>> getCategoryStats() {
+        log.debug("REST request to get category statistics");
+        List<CategoryStatsResponse> stats = categorySummaryService.getCategoryStats();
+        return ResponseEntity.ok(ApiResponse.success("Category statistics retrieved successfully", stats));
+    }
+
     @GetMapping(path = "/active", version = "1.0")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getActiveProducts() {
-        log.info("REST request to get active products");
-        List<ProductResponse> products = productService.getActiveProducts();
-        return ResponseEntity.ok(ApiResponse.success("Active products retrieved successfully", products));
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getActiveProducts(
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        log.debug("REST request to get active products");
+        String variant = Objects.toString(fields, "");
+        ProductVersion version = fields != null || ConditionalGet.isConditional(headers)
+                ? productService.getActiveProductsVersion()
+                : null;
+        if (version != null && ConditionalGet.isListNotModified(headers, version, variant)) {
+            return ConditionalGet.listNotModified(version, variant);
+        }
+        List<ProductResponse> products = fields == null
+                ? productService.getActiveProducts()
+                : productService.getActiveProducts(ProductField.parse(fields));
+        return ConditionalGet.listOk(fields == null ? ProductVersion.of(products) : version, variant)
+                .body(ApiResponse.success("Active products retrieved successfully", products));
     }
 
     @GetMapping(path = "/search", version = "1.0")
     public ResponseEntity<ApiResponse<List<ProductResponse>>> searchProducts(
-            @RequestParam String keyword) {
-        log.info("REST request to search products with keyword: {}", keyword);
-        List<ProductResponse> products = productService.searchProducts(keyword);
-        return ResponseEntity.ok(ApiResponse.success("Search results retrieved successfully", products));
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        log.debug("REST request to search products with keyword: {}", keyword);
+        List<ProductResponse> products = productService.searchProducts(keyword, page, size,
+                fields == null ? null : ProductField.parse(fields));
+        ApiResponse<List<ProductResponse>> body = ApiResponse.success("Search results retrieved successfully", products);
+        if (fields != null) {
+            return ResponseEntity.ok(body);
+        }
+        return ConditionalGet.listOk(ProductVersion.of(products), orderVariant(products)).body(body);
+    }
+
+    /**
+     * Combined category, active, price range and stock filters with facet counts, answered from the
+     * in-memory catalog snapshot. {@code category} may be repeated.
+     */
+    @GetMapping(path = "/filter", version = "1.0")
+    public ResponseEntity<ApiResponse<ProductFilterResponse>> filterProducts(
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("REST request to filter products - category: {}, active: {}, inStock: {}, price: {}..{}",
+                category, active, inStock, minPrice, maxPrice);
+        ProductFilter filter = new ProductFilter(category, active, inStock, minPrice, maxPrice,
+                ProductFilter.SortKey.parse(sortBy), sortDir.equalsIgnoreCase("asc"), page, size);
+        return ResponseEntity.ok(ApiResponse.success("Products filtered successfully",
+                productService.filterProducts(filter)));
+    }
+
+    /**
+     * Paged and ranked results have no cheap aggregate to check up front, so their tag also covers
+     * the order of the returned rows.
+     */
+    private static String orderVariant(List<ProductResponse> products) {
+        return Integer.toHexString(products.stream().map(ProductResponse::getId).toList().hashCode());
+    }
+
+    private void writeExport(OutputStream outputStream, boolean ndjson) throws IOException {
+        AtomicLong written = new AtomicLong();
+        if (!ndjson) {
+            outputStream.write('[');
+        }
+        try {
+            productService.exportProducts(product -> {
+                try {
+                    if (!ndjson && written.getAndIncrement() > 0) {
+                        outputStream.write(',');
+                    }
+                    outputStream.write(objectMapper.writeValueAsBytes(product));
+                    if (ndjson) {
+                        outputStream.write('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (!ndjson) {
+            outputStream.write(']');
+        }
+        outputStream.flush();
     }
 }
@@ -0,0 +1,215 @@
+package id.my.hendisantika.springboot4sample.datasource;
+
+import id.my.hendisantika.springboot4sample.config.ReplicaProperties.LoadBalancing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Read-only side of the routing data source. Hands out connections from healthy replicas by round
+ * robin or least connections, marks a replica down when it fails to connect and probes it back up
+ * in the background. A replica whose pool merely has no free connection stays in rotation and the
+ * read moves on to the next one. When no replica is usable, or the current thread is pinned for
+ * read-your-writes, connections come from the primary.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final LoadBalancing loadBalancing;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaDataSource(DataSource primary, Map<String, DataSource> replicas, LoadBalancing loadBalancing,
+                             Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet()
+                .stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.loadBalancing = loadBalancing;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("replica-health-check").factory());
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval.toMillis(),
+                healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPinnedToPrimary()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.connect();
+                } catch (SQLException ex) {
+                    if (isConnectionFailure(ex)) {
+                        replica.markDown(ex);
+                    } else {
+                        log.debug("Replica {} has no connection available, trying the next one: {}",
+                                replica.name, ex.getMessage());
+                    }
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Probes every replica once, bringing recovered ones back into rotation.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                replica.markDown(ex);
+            }
+        }
+    }
+
+    /**
+     * Whether {@code ex} reports that the replica could not be reached or refused the connection
+     * (SQLState class 08). A pool timeout carries that state only when it was caused by a failed
+     * connection attempt; otherwise the replica is just busy, and {@link #checkHealth} still takes it
+     * out of rotation if it fails to answer.
+     */
+    private static boolean isConnectionFailure(SQLException ex) {
+        return ex.getSQLState() != null && ex.getSQLState().startsWith(CONNECTION_EXCEPTION_CLASS);
+    }
+
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.size() > 1) {
+            if (loadBalancing == LoadBalancing.LEAST_CONNECTIONS) {
+                healthy.sort(Comparator.comparingInt(replica -> replica.active.get()));
+            } else {
+                int start = Math.floorMod(nextReplica.getAndIncrement(), healthy.size());
+                List<Replica> rotated = new ArrayList<>(healthy.subList(start, healthy.size()));
+                rotated.addAll(healthy.subList(0, start));
+                return rotated;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.up", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is in rotation")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("db.replica.active", replica, r -> r.active.get())
+                    .description("Connections currently checked out from the replica")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private Connection connect() throws SQLException {
+            Connection target = dataSource.getConnection();
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        boolean closing = method.getName().equals("close") && closed.compareAndSet(false, true);
+                        try {
+                            if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                                return target;
+                            }
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        } finally {
+                            if (closing) {
+                                active.decrementAndGet();
+                            }
+                        }
+                    });
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} is back in rotation", name);
+            }
+        }
+
+        private void markDown(Exception cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} taken out of rotation, reads fall back to other replicas or the primary", name, cause);
+            }
+        }
+    }
+}
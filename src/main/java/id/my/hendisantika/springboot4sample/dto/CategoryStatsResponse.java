@@ -0,0 +1,34 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryStatsResponse {
+
+    private String category;
+    private Long productCount;
+    private Long activeCount;
+    private Long totalQuantity;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal averagePrice;
+}
@@ -0,0 +1,34 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * How {@code totalElements} of an offset page is obtained, chosen with the {@code total} query parameter.
+ * Only {@link #EXACT} runs a {@code COUNT(*)} per request.
+ */
+public enum PageTotal {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static PageTotal parse(String total) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(total))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown total mode: " + total.toLowerCase(Locale.ROOT)
+                        + ", expected exact, estimate or none"));
+    }
+}
@@ -1,5 +1,6 @@
 package id.my.hendisantika.springboot4sample.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,13 +23,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
 
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    /**
+     * True when {@code totalElements} and {@code totalPages} come from a cached count rather than {@code COUNT(*)}.
+     */
+    private Boolean totalEstimated;
     private boolean last;
     private boolean first;
+    private String nextCursor;
+    private String prevCursor;
 }
@@ -0,0 +1,38 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * One entry of the product change feed. {@code product} is written as stored in the outbox,
+ * without being parsed and serialized again per subscriber.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeResponse {
+
+    private Long sequence;
+    private ProductChangedEvent.ChangeType type;
+    private Long productId;
+    @JsonRawValue
+    private String product;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,75 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Fields of {@link ProductResponse} that can be requested with the {@code fields} query parameter.
+ * Only the selected columns are read from the database; the id is always included.
+ */
+public enum ProductField {
+    ID("id", (response, value) -> response.setId((Long) value)),
+    NAME("name", (response, value) -> response.setName((String) value)),
+    DESCRIPTION("description", (response, value) -> response.setDescription((String) value)),
+    PRICE("price", (response, value) -> response.setPrice((BigDecimal) value)),
+    QUANTITY("quantity", (response, value) -> response.setQuantity((Integer) value)),
+    CATEGORY("category", (response, value) -> response.setCategory((String) value)),
+    IS_ACTIVE("isActive", (response, value) -> response.setIsActive((Boolean) value)),
+    CREATED_AT("createdAt", (response, value) -> response.setCreatedAt((LocalDateTime) value)),
+    UPDATED_AT("updatedAt", (response, value) -> response.setUpdatedAt((LocalDateTime) value)),
+    VERSION("version", (response, value) -> response.setVersion((Long) value));
+
+    private final String property;
+    private final BiConsumer<ProductResponse, Object> setter;
+
+    ProductField(String property, BiConsumer<ProductResponse, Object> setter) {
+        this.property = property;
+        this.setter = setter;
+    }
+
+    /**
+     * Parses a comma separated list such as {@code id,name,price}.
+     */
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(of(trimmed));
+            }
+        }
+        return selected;
+    }
+
+    private static ProductField of(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equalsIgnoreCase(property))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown product field: " + property.toLowerCase(Locale.ROOT)));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public void apply(ProductResponse response, Object value) {
+        setter.accept(response, value);
+    }
+}
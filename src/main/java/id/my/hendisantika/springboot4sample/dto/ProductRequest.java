@@ -44,4 +44,9 @@ public class ProductRequest {
     private String category;
 
     private Boolean isActive;
+
+    /**
+     * Version the client last read. When present, an update is rejected if the product has changed since.
+     */
+    private Long version;
 }
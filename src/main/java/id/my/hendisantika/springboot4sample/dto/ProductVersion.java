@@ -0,0 +1,72 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Version of a set of products: row count, sum of ids and latest {@code updatedAt}. Inserts and
+ * deletes change the count and id sum, updates move {@code updatedAt}. The same value can be read
+ * with an aggregate query or derived from the rows of a response, so conditional requests can be
+ * answered before the rows are loaded.
+ */
+public record ProductVersion(Long count, Long idSum, LocalDateTime lastModified) {
+
+    public ProductVersion {
+        count = count != null ? count : 0L;
+        idSum = idSum != null ? idSum : 0L;
+    }
+
+    public static ProductVersion of(ProductResponse product) {
+        return of(List.of(product));
+    }
+
+    public static ProductVersion of(Collection<ProductResponse> products) {
+        return new ProductVersion(
+                (long) products.size(),
+                products.stream().mapToLong(ProductResponse::getId).sum(),
+                products.stream()
+                        .map(ProductResponse::getUpdatedAt)
+                        .filter(Objects::nonNull)
+                        .max(LocalDateTime::compareTo)
+                        .orElse(null));
+    }
+
+    public boolean exists() {
+        return count > 0;
+    }
+
+    /**
+     * Weak entity tag for this version. {@code variant} distinguishes representations of the
+     * same rows, such as different sparse field sets. The tag is weak because it versions the data
+     * rather than the bytes, which differ between JSON, CBOR and Smile and between content codings.
+     */
+    public String etag(String variant) {
+        long micros = lastModified != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, lastModifiedInstant())
+                : 0L;
+        String tag = Long.toHexString(count) + "-" + Long.toHexString(idSum) + "-" + Long.toHexString(micros);
+        if (variant != null && !variant.isEmpty()) {
+            tag += "-" + Integer.toHexString(variant.hashCode());
+        }
+        return "W/\"" + tag + "\"";
+    }
+
+    public Instant lastModifiedInstant() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package id.my.hendisantika.springboot4sample.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Product read with a sparse field set. Fields that were not selected stay null and are left out of
+ * the response; full {@link ProductResponse}s keep writing their null fields.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseProductResponse extends ProductResponse {
+}
@@ -0,0 +1,67 @@
+package id.my.hendisantika.springboot4sample.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Per-category aggregates over {@link Product}, kept current by deltas from every write so
+ * dashboards never have to scan the products table.
+ */
+@Entity
+@Table(name = "category_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategorySummary {
+
+    @Id
+    @Column(length = 50)
+    private String category;
+
+    @Column(name = "product_count", nullable = false)
+    private Long productCount;
+
+    @Column(name = "active_count", nullable = false)
+    private Long activeCount;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+
+    @Column(name = "price_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal priceSum;
+
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static CategorySummary empty(String category) {
+        return CategorySummary.builder()
+                .category(category)
+                .productCount(0L)
+                .activeCount(0L)
+                .totalQuantity(0L)
+                .priceSum(BigDecimal.ZERO)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
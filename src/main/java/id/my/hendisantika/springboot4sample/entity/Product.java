@@ -2,6 +2,7 @@ package id.my.hendisantika.springboot4sample.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,7 +19,15 @@ import java.time.LocalDateTime;
  * To change this template use File | Settings | File Templates.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_quantity_id", columnList = "quantity, id"),
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_price", columnList = "category, price"),
+        @Index(name = "idx_products_category_active", columnList = "category, is_active"),
+        @Index(name = "idx_products_active_id", columnList = "is_active, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -55,6 +64,11 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,50 @@
+package id.my.hendisantika.springboot4sample.entity;
+
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * One committed product change in the outbox. The id is the change-feed sequence number and the
+ * payload is the product as JSON, after the change or, for deletes, before it.
+ */
+@Entity
+@Table(name = "product_outbox", indexes = {
+        @Index(name = "idx_product_outbox_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 10)
+    private ProductChangedEvent.ChangeType changeType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package id.my.hendisantika.springboot4sample.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Last journal segment of a write-behind node whose deltas are in the database. It is written in
+ * the same transaction as the deltas, so replaying the journal never applies a segment twice.
+ */
+@Entity
+@Table(name = "write_behind_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WriteBehindCheckpoint {
+
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private Long segment;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package id.my.hendisantika.springboot4sample.event;
+
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Published by the write paths for every product change. {@code before} is null for creations
+ * and {@code after} is null for deletions.
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, ProductResponse before, ProductResponse after) {
+
+    public static ProductChangedEvent created(ProductResponse after) {
+        return new ProductChangedEvent(ChangeType.CREATED, after.getId(), null, after);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse before, ProductResponse after) {
+        return new ProductChangedEvent(ChangeType.UPDATED, after.getId(), before, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductResponse before) {
+        return new ProductChangedEvent(ChangeType.DELETED, before.getId(), before, null);
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,22 @@
+package id.my.hendisantika.springboot4sample.event;
+
+import id.my.hendisantika.springboot4sample.dto.ProductChangeResponse;
+
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Published on the change feed relay thread for every batch it reads from the outbox. Unlike
+ * {@link ProductChangedEvent} it carries the changes committed by every instance, in commit order.
+ */
+public record ProductChangesRelayedEvent(List<ProductChangeResponse> changes) {
+}
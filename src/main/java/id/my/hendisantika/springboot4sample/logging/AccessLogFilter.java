@@ -0,0 +1,60 @@
+package id.my.hendisantika.springboot4sample.logging;
+
+import id.my.hendisantika.springboot4sample.config.AccessLogProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * One line per request on the {@code access} logger, sampled at {@code app.access-log.sample-rate}.
+ * Server errors and requests slower than {@code app.access-log.slow-threshold} are always logged.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+
+    private final AccessLogProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (ACCESS_LOG.isInfoEnabled() && shouldLog(response.getStatus(), elapsedMillis)) {
+                ACCESS_LOG.info("{} {} {} {}ms", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), elapsedMillis);
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long elapsedMillis) {
+        return status >= 500
+                || elapsedMillis >= properties.getSlowThreshold().toMillis()
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+}
@@ -0,0 +1,59 @@
+package id.my.hendisantika.springboot4sample.metrics;
+
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Records how many rows each {@link ProductRepository} query returned, tagged like Spring Data's
+ * own {@code spring.data.repository.invocations} timer so the two can be joined on a dashboard.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryRowsAspect {
+
+    private static final String METRIC_NAME = "spring.data.repository.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    @AfterReturning(pointcut = "this(id.my.hendisantika.springboot4sample.repository.ProductRepository)",
+            returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof Window<?> window) {
+            rows = window.size();
+        } else {
+            return;
+        }
+        DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("rows")
+                .tag("repository", ProductRepository.class.getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
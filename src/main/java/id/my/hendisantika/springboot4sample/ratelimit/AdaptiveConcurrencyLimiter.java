@@ -0,0 +1,99 @@
+package id.my.hendisantika.springboot4sample.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Concurrency limit that follows observed latency (AIMD). A slow response multiplies the limit by the
+ * backoff ratio; a fast one while at least half the limit is in use raises it by one. Requests over
+ * the limit are turned away before they queue for threads or connections, so latency for the
+ * admitted ones stays flat. Both counters are plain atomics; a lost race on the limit is simply dropped.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot and, when {@code cost} is positive, feeds the request's latency into the limit.
+     * Latency is compared against the threshold times the request's cost.
+     */
+    public void release(long latencyNanos, int cost) {
+        int used = inFlight.getAndDecrement();
+        if (cost <= 0) {
+            return;
+        }
+        int current = limit.get();
+        int next;
+        if (latencyNanos > latencyThresholdNanos * cost) {
+            next = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (used * 2 >= current) {
+            next = Math.min(maxLimit, current + 1);
+        } else {
+            return;
+        }
+        if (next != current) {
+            limit.compareAndSet(current, next);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("concurrency-limit.limit", limit, AtomicInteger::get)
+                .description("Current adaptive concurrency limit for product endpoints")
+                .register(registry);
+        Gauge.builder("concurrency-limit.in-flight", inFlight, AtomicInteger::get)
+                .description("Product requests currently admitted")
+                .register(registry);
+        FunctionCounter.builder("concurrency-limit.rejected", rejected, AtomicLong::get)
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package id.my.hendisantika.springboot4sample.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Token bucket per client, kept as a single theoretical arrival time (GCRA) in an {@link AtomicLong}
+ * and updated with one compare-and-set, so there is no lock and no refill task. A bucket that has been
+ * idle long enough to refill completely is the same as a new one, so buckets expire after that long.
+ */
+public class ClientRateLimiter implements MeterBinder {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int burst;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ClientRateLimiter(double rate, int burst, long maxClients) {
+        this.emissionIntervalNanos = (long) (Duration.ofSeconds(1).toNanos() / rate);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.burst = burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstToleranceNanos))
+                .build();
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket. Returns zero when they were taken, otherwise
+     * how many nanoseconds until the bucket holds enough of them.
+     */
+    public long tryAcquire(String client, int cost) {
+        AtomicLong arrival = buckets.get(client, key -> new AtomicLong(System.nanoTime()));
+        long increment = emissionIntervalNanos * Math.min(cost, burst);
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long next = Math.max(current, now) + increment;
+            long waitNanos = next - burstToleranceNanos - now;
+            if (waitNanos > 0) {
+                rejected.incrementAndGet();
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rate-limit.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a rate limit bucket")
+                .register(registry);
+        FunctionCounter.builder("rate-limit.rejected", rejected, AtomicLong::get)
+                .description("Requests rejected with 429 because the client ran out of tokens")
+                .register(registry);
+    }
+}
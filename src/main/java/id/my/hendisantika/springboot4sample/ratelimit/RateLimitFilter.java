@@ -0,0 +1,125 @@
+package id.my.hendisantika.springboot4sample.ratelimit;
+
+import id.my.hendisantika.springboot4sample.config.RateLimitProperties;
+import id.my.hendisantika.springboot4sample.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Guards the product endpoints. Each request takes its endpoint's cost from the client's token bucket
+ * ({@code 429} when empty) and then needs a slot under the adaptive concurrency limit ({@code 503}
+ * when full). Both checks run before the request reaches Spring MVC, the service or the database.
+ * Only configured API keys are trusted as client identity; everything else is keyed by remote address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final PathPattern PRODUCT_PATHS = PathPatternParser.defaultInstance.parse("/{version}/products/**");
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RateLimitProperties properties;
+    private final List<EndpointCost> costs;
+    private final Set<String> apiKeys;
+    private final JsonMapper jsonMapper;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                           RateLimitProperties properties, JsonMapper jsonMapper) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+        this.costs = properties.getEndpoints().stream()
+                .map(endpoint -> new EndpointCost(endpoint.getMethod(),
+                        PathPatternParser.defaultInstance.parse(endpoint.getPath()), endpoint.getCost()))
+                .toList();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PRODUCT_PATHS.matches(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int cost = cost(request.getMethod(), path(request));
+        long waitNanos = rateLimiter.tryAcquire(client(request), cost);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                    "Rate limit exceeded, please slow down");
+            return;
+        }
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, please retry shortly");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sample = false;
+        try {
+            filterChain.doFilter(request, response);
+            sample = !request.isAsyncStarted() && response.getStatus() < 500;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start, sample ? cost : 0);
+        }
+    }
+
+    private int cost(String method, PathContainer path) {
+        for (EndpointCost endpoint : costs) {
+            if ((endpoint.method() == null || endpoint.method().equalsIgnoreCase(method))
+                    && endpoint.pattern().matches(path)) {
+                return endpoint.cost();
+            }
+        }
+        return properties.getDefaultCost();
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getClientHeader());
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static PathContainer path(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private record EndpointCost(String method, PathPattern pattern, int cost) {
+    }
+}
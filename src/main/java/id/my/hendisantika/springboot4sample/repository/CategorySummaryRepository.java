@@ -0,0 +1,94 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.entity.CategorySummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Repository
+public interface CategorySummaryRepository extends JpaRepository<CategorySummary, String> {
+
+    List<CategorySummary> findByProductCountGreaterThanOrderByCategory(Long productCount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CategorySummary s ORDER BY s.category")
+    List<CategorySummary> findAllForUpdate();
+
+    /**
+     * Creates the empty row for {@code category} unless it exists. Neither a concurrent insert of the
+     * same row nor an existing one fails the statement, so it can run in the caller's transaction. On
+     * a duplicate it takes the row's exclusive lock right away, as the later delta update would, rather
+     * than a shared lock that two writers would then both try to upgrade.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_summaries (category, product_count, active_count, total_quantity, "
+            + "price_sum, updated_at) VALUES (:category, 0, 0, 0, 0, :now) "
+            + "ON DUPLICATE KEY UPDATE category = category", nativeQuery = true)
+    int insertIfAbsent(@Param("category") String category, @Param("now") LocalDateTime now);
+
+    /**
+     * Adds a delta to one row in a single statement instead of reading it under a lock first. Counts
+     * and sums are added; the price bounds are only widened by the added prices. Returns 0 when the
+     * row does not exist.
+     */
+    @Modifying
+    @Query(value = "UPDATE category_summaries SET product_count = product_count + :productCount, "
+            + "active_count = active_count + :activeCount, total_quantity = total_quantity + :totalQuantity, "
+            + "price_sum = price_sum + :priceSum, "
+            + "min_price = COALESCE(LEAST(min_price, :addedMin), min_price, :addedMin), "
+            + "max_price = COALESCE(GREATEST(max_price, :addedMax), max_price, :addedMax), "
+            + "updated_at = :now WHERE category = :category", nativeQuery = true)
+    int addDelta(@Param("category") String category, @Param("productCount") long productCount,
+                 @Param("activeCount") long activeCount, @Param("totalQuantity") long totalQuantity,
+                 @Param("priceSum") BigDecimal priceSum, @Param("addedMin") BigDecimal addedMin,
+                 @Param("addedMax") BigDecimal addedMax, @Param("now") LocalDateTime now);
+
+    /**
+     * Replaces the minimum price when the removed price was at or below it.
+     */
+    @Modifying
+    @Query("UPDATE CategorySummary s SET s.minPrice = :minPrice "
+            + "WHERE s.category = :category AND s.minPrice >= :removedMin")
+    int replaceMinPrice(@Param("category") String category, @Param("removedMin") BigDecimal removedMin,
+                        @Param("minPrice") BigDecimal minPrice);
+
+    /**
+     * Replaces the maximum price when the removed price was at or above it.
+     */
+    @Modifying
+    @Query("UPDATE CategorySummary s SET s.maxPrice = :maxPrice "
+            + "WHERE s.category = :category AND s.maxPrice <= :removedMax")
+    int replaceMaxPrice(@Param("category") String category, @Param("removedMax") BigDecimal removedMax,
+                        @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * Aggregates the products table from scratch, one unmanaged {@link CategorySummary} per category.
+     */
+    @Query("SELECT new id.my.hendisantika.springboot4sample.entity.CategorySummary(p.category, COUNT(p), "
+            + "SUM(CASE WHEN p.isActive = true THEN 1L ELSE 0L END), SUM(p.quantity), SUM(p.price), "
+            + "MIN(p.price), MAX(p.price), :now) "
+            + "FROM Product p WHERE p.category IS NOT NULL GROUP BY p.category")
+    List<CategorySummary> aggregateProducts(@Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT p.category FROM Product p WHERE p.category IS NOT NULL")
+    List<String> findProductCategories();
+}
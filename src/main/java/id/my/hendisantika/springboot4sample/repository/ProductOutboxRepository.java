@@ -0,0 +1,47 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.entity.ProductOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+
+    List<ProductOutboxEvent> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    List<ProductOutboxEvent> findByIdBetweenOrderById(Long from, Long to, Limit limit);
+
+    /**
+     * Locking read over a range of missing sequence numbers. It waits for transactions that inserted
+     * rows in the range and have not finished yet, and returns the ids that committed. An empty
+     * result means every id in the range was rolled back.
+     */
+    @Query(value = "SELECT id FROM product_outbox WHERE id >= :from AND id < :to ORDER BY id FOR SHARE",
+            nativeQuery = true)
+    List<Long> lockIdsInRange(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ProductOutboxEvent e")
+    Long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM ProductOutboxEvent e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,29 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.dto.ProductField;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Sparse fieldset reads. Only the requested columns are selected and the rows come back as
+ * {@link ProductResponse} values, so no entities are loaded into the persistence context.
+ */
+public interface ProductProjectionRepository {
+
+    List<ProductResponse> findProjected(Specification<Product> specification, Set<ProductField> fields, Pageable pageable);
+}
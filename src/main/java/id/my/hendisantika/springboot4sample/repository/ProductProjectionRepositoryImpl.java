@@ -0,0 +1,70 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.dto.ProductField;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.SparseProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ */
+@RequiredArgsConstructor
+public class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ProductResponse> findProjected(Specification<Product> specification, Set<ProductField> fields,
+                                               Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(field -> root.get(field.getProperty()).alias(field.getProperty()))
+                .toList());
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        query.orderBy(pageable.getSort()
+                .stream()
+                .map(order -> order.isAscending()
+                        ? cb.asc(root.get(order.getProperty()))
+                        : cb.desc(root.get(order.getProperty())))
+                .toList());
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList()
+                .stream()
+                .map(tuple -> {
+                    ProductResponse response = new SparseProductResponse();
+                    fields.forEach(field -> field.apply(response, tuple.get(field.getProperty())));
+                    return response;
+                })
+                .toList();
+    }
+}
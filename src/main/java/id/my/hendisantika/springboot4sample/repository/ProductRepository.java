@@ -1,14 +1,32 @@
 package id.my.hendisantika.springboot4sample.repository;
 
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
 import id.my.hendisantika.springboot4sample.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Created by IntelliJ IDEA.
@@ -22,7 +40,20 @@ import java.util.List;
  * To change this template use File | Settings | File Templates.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductProjectionRepository {
+
+    /**
+     * Selects straight into {@link ProductResponse}, skipping entity hydration and dirty checking.
+     */
+    String SELECT_RESPONSE = "SELECT new id.my.hendisantika.springboot4sample.dto.ProductResponse("
+            + "p.id, p.name, p.description, p.price, p.quantity, p.category, p.isActive, p.createdAt, p.updatedAt, p.version) "
+            + "FROM Product p";
+
+    /**
+     * Aggregate version of the matching rows, see {@link ProductVersion}.
+     */
+    String SELECT_VERSION = "SELECT new id.my.hendisantika.springboot4sample.dto.ProductVersion("
+            + "COUNT(p), SUM(p.id), MAX(p.updatedAt)) FROM Product p";
 
     List<Product> findByCategory(String category);
 
@@ -30,11 +61,93 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByIsActiveTrue(Pageable pageable);
 
+    /**
+     * Same page as {@code findAll(Pageable)} without the {@code COUNT(*)}; one extra row tells whether
+     * there is a next page.
+     */
+    Slice<Product> findSliceBy(Pageable pageable);
+
+    Slice<Product> findSliceByIsActiveTrue(Pageable pageable);
+
+    long countByIsActiveTrue();
+
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
     List<Product> searchByKeyword(@Param("keyword") String keyword);
 
+    @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
+    List<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.category = :category AND p.isActive = true")
     List<Product> findActiveByCategorY(@Param("category") String category);
 
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllBy();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + " WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+    @Query(SELECT_RESPONSE + " ORDER BY p.id")
+    List<ProductResponse> findAllResponses();
+
+    @Query(SELECT_RESPONSE + " WHERE p.category = :category ORDER BY p.id")
+    List<ProductResponse> findResponsesByCategory(@Param("category") String category);
+
+    /**
+     * The first {@code limit} products by id of each category, active ones only when asked, so a
+     * large category never travels to the application in full.
+     */
+    @Query(value = "SELECT id, name, description, price, quantity, category, is_active, created_at, updated_at, version "
+            + "FROM (SELECT p.*, ROW_NUMBER() OVER (PARTITION BY p.category ORDER BY p.id) AS row_num FROM products p "
+            + "WHERE p.category IN (:categories) AND (:activeOnly = false OR p.is_active = true)) ranked "
+            + "WHERE row_num <= :limit ORDER BY category, id", nativeQuery = true)
+    List<Product> findFirstPerCategory(@Param("categories") Collection<String> categories,
+                                       @Param("activeOnly") boolean activeOnly, @Param("limit") int limit);
+
+    @Query(SELECT_RESPONSE + " WHERE p.isActive = true")
+    List<ProductResponse> findActiveResponses();
+
+    @Query(SELECT_RESPONSE + " WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
+    List<ProductResponse> searchResponsesByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + " WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VERSION)
+    ProductVersion findVersion();
+
+    @Query(SELECT_VERSION + " WHERE p.id = :id")
+    ProductVersion findVersionById(@Param("id") Long id);
+
+    @Query(SELECT_VERSION + " WHERE p.category = :category")
+    ProductVersion findVersionByCategory(@Param("category") String category);
+
+    @Query(SELECT_VERSION + " WHERE p.isActive = true")
+    ProductVersion findActiveVersion();
+
+    @Query("SELECT MIN(p.price) FROM Product p WHERE p.category = :category")
+    BigDecimal findMinPriceByCategory(@Param("category") String category);
+
+    @Query("SELECT MAX(p.price) FROM Product p WHERE p.category = :category")
+    BigDecimal findMaxPriceByCategory(@Param("category") String category);
+
+    /**
+     * Adds {@code delta} to the stock in a single statement, guarded so the quantity never drops
+     * below zero. Returns 0 when the product is missing or the stock is insufficient.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :delta, p.version = p.version + 1, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.quantity + :delta >= 0")
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
 }
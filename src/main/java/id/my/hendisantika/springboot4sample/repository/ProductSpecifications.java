@@ -0,0 +1,43 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Filters shared by the list endpoints, mirroring the JPQL in {@link ProductRepository}.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.equal(root.get("isActive"), true);
+    }
+
+    public static Specification<Product> matchesKeyword(String keyword) {
+        return (root, query, cb) -> cb.or(
+                cb.like(root.get("name"), "%" + keyword + "%"),
+                cb.like(root.get("description"), "%" + keyword + "%"));
+    }
+
+    public static Specification<Product> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+}
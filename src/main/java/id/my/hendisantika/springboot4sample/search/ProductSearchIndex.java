@@ -0,0 +1,271 @@
+package id.my.hendisantika.springboot4sample.search;
+
+import id.my.hendisantika.springboot4sample.config.SearchProperties;
+import id.my.hendisantika.springboot4sample.dto.ProductChangeResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.event.ProductChangesRelayedEvent;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * In-process inverted index over product name, category and description. Every query token is
+ * matched as a prefix against the sorted term dictionary, documents must match all tokens, and
+ * results are ranked by field-weighted TF-IDF. The index is built in the background on startup
+ * and kept current from committed {@link ProductChangedEvent}s, which cover this instance's writes
+ * right away, and from the outbox change feed, which brings in every instance's writes in commit
+ * order a poll interval later. Rows changed without going through the service, such as bulk SQL or
+ * repository bulk deletes, write no outbox row and only show up after a rebuild; set
+ * {@code app.search.rebuild-cron} to rebuild periodically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final ProductRepository productRepository;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    public boolean isReady() {
+        return searchProperties.isIndexEnabled() && ready && !rebuilding;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (searchProperties.isIndexEnabled()) {
+            Thread.ofVirtual().name("product-search-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database on the calling thread. Concurrent rebuilds run one after
+     * the other, so a caller returns only once no rebuild is in progress.
+     */
+    public synchronized void rebuild() {
+        log.info("Rebuilding product search index");
+        rebuilding = true;
+        deletedDuringRebuild.clear();
+        write(() -> {
+            postings.clear();
+            documents.clear();
+        });
+        try {
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<ProductDocument> window;
+            int indexed = 0;
+            do {
+                window = productRepository.findAllBy(position, Sort.by("id"), Limit.of(searchProperties.getRebuildBatchSize()))
+                        .map(product -> new ProductDocument(product.getId(), product.getName(),
+                                product.getCategory(), product.getDescription()));
+                List<ProductDocument> batch = window.getContent();
+                write(() -> batch.stream()
+                        .filter(document -> !deletedDuringRebuild.contains(document.id()))
+                        .filter(document -> !documents.containsKey(document.id()))
+                        .forEach(this::addDocument));
+                indexed += batch.size();
+                if (!window.isEmpty()) {
+                    position = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).forward();
+                }
+            } while (window.hasNext());
+            ready = true;
+            log.info("Product search index rebuilt with {} documents", indexed);
+        } catch (RuntimeException ex) {
+            log.error("Product search index rebuild failed, search stays on the SQL path", ex);
+        } finally {
+            rebuilding = false;
+            deletedDuringRebuild.clear();
+        }
+    }
+
+    @Scheduled(cron = "${app.search.rebuild-cron}")
+    public void rebuildPeriodically() {
+        if (searchProperties.isIndexEnabled()) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!searchProperties.isIndexEnabled()) {
+            return;
+        }
+        ProductResponse after = event.after();
+        apply(event.productId(), after == null ? null
+                : new ProductDocument(event.productId(), after.getName(), after.getCategory(), after.getDescription()));
+    }
+
+    /**
+     * Applies the changes relayed from the outbox. They may repeat what {@link #onProductChanged}
+     * already applied for local writes; replaying a change is harmless, and because the feed is in
+     * commit order the index ends up matching the last committed state of every product.
+     */
+    @EventListener
+    public void onChangesRelayed(ProductChangesRelayedEvent event) {
+        if (!searchProperties.isIndexEnabled()) {
+            return;
+        }
+        for (ProductChangeResponse change : event.changes()) {
+            if (change.getType() == ProductChangedEvent.ChangeType.DELETED) {
+                apply(change.getProductId(), null);
+            } else {
+                ProductResponse product = objectMapper.readValue(change.getProduct(), ProductResponse.class);
+                apply(change.getProductId(), new ProductDocument(change.getProductId(), product.getName(),
+                        product.getCategory(), product.getDescription()));
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the requested page of matches, best match first.
+     */
+    public List<Long> search(String keyword, int page, int size) {
+        List<String> tokens = tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            double documentCount = Math.max(documents.size(), 1);
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> term : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                    double idf = Math.log(1 + documentCount / term.getValue().size());
+                    double factor = term.getKey().equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+                    term.getValue().forEach((id, weight) -> tokenScores.merge(id, weight * idf * factor, Double::sum));
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip((long) page * size)
+                    .limit(size)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the document of {@code id}, or removes it when {@code document} is null.
+     */
+    private void apply(Long id, ProductDocument document) {
+        if (document == null) {
+            if (rebuilding) {
+                deletedDuringRebuild.add(id);
+            }
+            write(() -> removeDocument(id));
+            return;
+        }
+        write(() -> {
+            removeDocument(id);
+            addDocument(document);
+        });
+    }
+
+    private void addDocument(ProductDocument document) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(document.name()).forEach(token -> terms.merge(token, NAME_WEIGHT, Integer::sum));
+        tokenize(document.category()).forEach(token -> terms.merge(token, CATEGORY_WEIGHT, Integer::sum));
+        tokenize(document.description()).forEach(token -> terms.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(), weight));
+        documents.put(document.id(), terms);
+    }
+
+    private void removeDocument(Long id) {
+        Map<String, Integer> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record ProductDocument(Long id, String name, String category, String description) {
+    }
+}
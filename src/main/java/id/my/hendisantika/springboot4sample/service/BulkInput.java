@@ -0,0 +1,25 @@
+package id.my.hendisantika.springboot4sample.service;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * One element of a bulk request: either the parsed value or the reason it could not be read.
+ */
+public record BulkInput<T>(T value, String error) {
+
+    public static <T> BulkInput<T> of(T value) {
+        return new BulkInput<>(value, value == null ? "Item is empty" : null);
+    }
+
+    public static <T> BulkInput<T> invalid(String error) {
+        return new BulkInput<>(null, error);
+    }
+}
@@ -0,0 +1,110 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Net change to one category's summary accumulated over a transaction. Counts and sums are
+ * additive; the price bounds can only be widened, so a removed price that sat on a bound tells
+ * the caller to re-read that bound from the products table. A change of quantity alone is
+ * recorded without removing and re-adding the product, so it never touches the bounds.
+ */
+final class CategoryDelta {
+
+    private long productCount;
+    private long activeCount;
+    private long totalQuantity;
+    private BigDecimal priceSum = BigDecimal.ZERO;
+    private BigDecimal addedMin;
+    private BigDecimal addedMax;
+    private BigDecimal removedMin;
+    private BigDecimal removedMax;
+
+    void add(ProductResponse product) {
+        productCount++;
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            activeCount++;
+        }
+        totalQuantity += product.getQuantity();
+        priceSum = priceSum.add(product.getPrice());
+        addedMin = min(addedMin, product.getPrice());
+        addedMax = max(addedMax, product.getPrice());
+    }
+
+    void remove(ProductResponse product) {
+        productCount--;
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            activeCount--;
+        }
+        totalQuantity -= product.getQuantity();
+        priceSum = priceSum.subtract(product.getPrice());
+        removedMin = min(removedMin, product.getPrice());
+        removedMax = max(removedMax, product.getPrice());
+    }
+
+    void addQuantity(int delta) {
+        totalQuantity += delta;
+    }
+
+    boolean isEmpty() {
+        return productCount == 0 && activeCount == 0 && totalQuantity == 0 && priceSum.signum() == 0
+                && addedMin == null && removedMin == null;
+    }
+
+    long productCount() {
+        return productCount;
+    }
+
+    long activeCount() {
+        return activeCount;
+    }
+
+    long totalQuantity() {
+        return totalQuantity;
+    }
+
+    BigDecimal priceSum() {
+        return priceSum;
+    }
+
+    BigDecimal addedMin() {
+        return addedMin;
+    }
+
+    BigDecimal addedMax() {
+        return addedMax;
+    }
+
+    BigDecimal removedMin() {
+        return removedMin;
+    }
+
+    BigDecimal removedMax() {
+        return removedMax;
+    }
+
+    private static BigDecimal min(BigDecimal current, BigDecimal candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate == null || current.compareTo(candidate) <= 0 ? current : candidate;
+    }
+
+    private static BigDecimal max(BigDecimal current, BigDecimal candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate == null || current.compareTo(candidate) >= 0 ? current : candidate;
+    }
+}
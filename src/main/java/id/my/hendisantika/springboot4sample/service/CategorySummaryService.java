@@ -0,0 +1,246 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.dto.CategoryStatsResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.CategorySummary;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.repository.CategorySummaryRepository;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Maintains {@link CategorySummary} rows incrementally. Every product change published inside a
+ * transaction is folded into a per-transaction delta, and the deltas are written just before that
+ * transaction commits, in category order, as one atomic {@code UPDATE} per category without
+ * reading the row first. Concurrent writers to one category therefore only hold its row lock for
+ * that statement and the commit. Products without a category are not summarized.
+ * {@link #reconcile()} rebuilds every row from the products table.
+ */
+@Service
+@Timed("product.service")
+@Slf4j
+public class CategorySummaryService {
+
+    private final CategorySummaryRepository summaryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> knownCategories = ConcurrentHashMap.newKeySet();
+
+    public CategorySummaryService(CategorySummaryRepository summaryRepository, ProductRepository productRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse before = event.before();
+        ProductResponse after = event.after();
+        if (before != null && after != null && sameAggregates(before, after)) {
+            return;
+        }
+        Map<String, CategoryDelta> deltas = currentDeltas();
+        if (before != null && after != null && after.getCategory() != null && sameBucket(before, after)) {
+            ensureExists(after.getCategory());
+            deltas.computeIfAbsent(after.getCategory(), category -> new CategoryDelta())
+                    .addQuantity(after.getQuantity() - before.getQuantity());
+            return;
+        }
+        if (before != null && before.getCategory() != null) {
+            ensureExists(before.getCategory());
+            deltas.computeIfAbsent(before.getCategory(), category -> new CategoryDelta()).remove(before);
+        }
+        if (after != null && after.getCategory() != null) {
+            ensureExists(after.getCategory());
+            deltas.computeIfAbsent(after.getCategory(), category -> new CategoryDelta()).add(after);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryStatsResponse> getCategoryStats() {
+        log.debug("Fetching category statistics");
+        return summaryRepository.findByProductCountGreaterThanOrderByCategory(0L)
+                .stream()
+                .map(CategorySummaryService::mapToResponse)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (summaryRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recomputes every summary row from the products table. The rows are locked before the
+     * products are aggregated, so writers that commit meanwhile apply their deltas on top of the
+     * rebuilt values instead of being overwritten by them.
+     */
+    @Scheduled(cron = "${app.category-summary.reconcile-cron}")
+    public void reconcile() {
+        log.debug("Reconciling category summaries");
+        knownCategories.clear();
+        Integer corrected = transactionTemplate.execute(status -> {
+            summaryRepository.findProductCategories().forEach(this::ensureExists);
+            LocalDateTime now = LocalDateTime.now();
+            List<CategorySummary> summaries = summaryRepository.findAllForUpdate();
+            Map<String, CategorySummary> actual = summaryRepository.aggregateProducts(now)
+                    .stream()
+                    .collect(Collectors.toMap(CategorySummary::getCategory, Function.identity()));
+            int drifted = 0;
+            for (CategorySummary summary : summaries) {
+                CategorySummary expected = actual.getOrDefault(summary.getCategory(),
+                        CategorySummary.empty(summary.getCategory()));
+                if (!sameAggregates(summary, expected)) {
+                    drifted++;
+                    summary.setProductCount(expected.getProductCount());
+                    summary.setActiveCount(expected.getActiveCount());
+                    summary.setTotalQuantity(expected.getTotalQuantity());
+                    summary.setPriceSum(expected.getPriceSum());
+                    summary.setMinPrice(expected.getMinPrice());
+                    summary.setMaxPrice(expected.getMaxPrice());
+                    summary.setUpdatedAt(now);
+                }
+            }
+            return drifted;
+        });
+        log.info("Category summaries reconciled, {} categories corrected", corrected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, CategoryDelta> currentDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Product changes must be published inside a transaction");
+        }
+        Map<String, CategoryDelta> deltas = (Map<String, CategoryDelta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<String, CategoryDelta> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    applyDeltas(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CategorySummaryService.this);
+                }
+            });
+            deltas = created;
+        }
+        return deltas;
+    }
+
+    private void applyDeltas(Map<String, CategoryDelta> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((category, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            if (addDelta(category, delta, now) == 0) {
+                summaryRepository.insertIfAbsent(category, now);
+                addDelta(category, delta, now);
+            }
+            if (delta.removedMin() != null) {
+                summaryRepository.replaceMinPrice(category, delta.removedMin(),
+                        productRepository.findMinPriceByCategory(category));
+                summaryRepository.replaceMaxPrice(category, delta.removedMax(),
+                        productRepository.findMaxPriceByCategory(category));
+            }
+        });
+    }
+
+    private int addDelta(String category, CategoryDelta delta, LocalDateTime now) {
+        return summaryRepository.addDelta(category, delta.productCount(), delta.activeCount(), delta.totalQuantity(),
+                delta.priceSum(), delta.addedMin(), delta.addedMax(), now);
+    }
+
+    /**
+     * Creates the empty row for a new category with an upsert in the caller's transaction, so two
+     * writers introducing the same category never fail each other's commit on the primary key, and no
+     * second pooled connection is needed while the caller holds one. If that transaction rolls back,
+     * {@link #applyDeltas} creates the row the next time it finds it missing.
+     */
+    private void ensureExists(String category) {
+        if (knownCategories.contains(category)) {
+            return;
+        }
+        if (!summaryRepository.existsById(category)) {
+            summaryRepository.insertIfAbsent(category, LocalDateTime.now());
+        }
+        knownCategories.add(category);
+    }
+
+    private static boolean sameAggregates(ProductResponse before, ProductResponse after) {
+        return sameBucket(before, after) && Objects.equals(before.getQuantity(), after.getQuantity());
+    }
+
+    /**
+     * Whether only the quantity can differ, so the change touches neither counts nor price bounds.
+     */
+    private static boolean sameBucket(ProductResponse before, ProductResponse after) {
+        return Objects.equals(before.getCategory(), after.getCategory())
+                && before.getPrice().compareTo(after.getPrice()) == 0
+                && Objects.equals(before.getIsActive(), after.getIsActive());
+    }
+
+    private static boolean sameAggregates(CategorySummary summary, CategorySummary expected) {
+        return summary.getProductCount().equals(expected.getProductCount())
+                && summary.getActiveCount().equals(expected.getActiveCount())
+                && summary.getTotalQuantity().equals(expected.getTotalQuantity())
+                && summary.getPriceSum().compareTo(expected.getPriceSum()) == 0
+                && sameNullable(summary.getMinPrice(), expected.getMinPrice())
+                && sameNullable(summary.getMaxPrice(), expected.getMaxPrice());
+    }
+
+    private static boolean sameNullable(BigDecimal left, BigDecimal right) {
+        return left == null ? right == null : right != null && left.compareTo(right) == 0;
+    }
+
+    private static CategoryStatsResponse mapToResponse(CategorySummary summary) {
+        return CategoryStatsResponse.builder()
+                .category(summary.getCategory())
+                .productCount(summary.getProductCount())
+                .activeCount(summary.getActiveCount())
+                .totalQuantity(summary.getTotalQuantity())
+                .minPrice(summary.getMinPrice())
+                .maxPrice(summary.getMaxPrice())
+                .averagePrice(summary.getPriceSum()
+                        .divide(BigDecimal.valueOf(summary.getProductCount()), 2, RoundingMode.HALF_UP))
+                .build();
+    }
+}
@@ -0,0 +1,306 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.config.BulkProperties;
+import id.my.hendisantika.springboot4sample.dto.BulkItemResult;
+import id.my.hendisantika.springboot4sample.dto.BulkResponse;
+import id.my.hendisantika.springboot4sample.dto.BulkUpdateRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Applies bulk create/update/delete requests in chunked transactions. Items are validated one by
+ * one, valid items are written {@code app.bulk.chunk-size} at a time, and every item gets its own
+ * result. Inserts go through a plain JDBC batch because the {@code IDENTITY} id strategy stops
+ * Hibernate from batching them; updates and deletes use Hibernate's JDBC batching.
+ */
+@Service
+@Timed("product.service")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBulkService {
+
+    private static final String INSERT_SQL = "INSERT INTO products "
+            + "(name, description, price, quantity, category, is_active, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkProperties bulkProperties;
+
+    public BulkResponse createProducts(Stream<BulkInput<ProductRequest>> items, boolean errorsOnly) {
+        log.debug("Bulk creating products");
+        return process(items, errorsOnly, this::insertChunk);
+    }
+
+    public BulkResponse updateProducts(Stream<BulkInput<BulkUpdateRequest>> items, boolean errorsOnly) {
+        log.debug("Bulk updating products");
+        return process(items, errorsOnly, this::updateChunk);
+    }
+
+    public BulkResponse deleteProducts(Stream<BulkInput<Long>> ids, boolean errorsOnly) {
+        log.debug("Bulk deleting products");
+        return process(ids, errorsOnly, this::deleteChunk);
+    }
+
+    private <T> BulkResponse process(Stream<BulkInput<T>> items, boolean errorsOnly,
+                                     Function<List<Item<T>>, List<BulkItemResult>> writer) {
+        Results results = new Results(errorsOnly);
+        List<Item<T>> chunk = new ArrayList<>(bulkProperties.getChunkSize());
+        Iterator<BulkInput<T>> iterator = items.iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            BulkInput<T> input = iterator.next();
+            BulkItemResult invalid = validate(index, input);
+            if (invalid != null) {
+                results.add(invalid);
+            } else {
+                chunk.add(new Item<>(index, input.value()));
+                if (chunk.size() >= bulkProperties.getChunkSize()) {
+                    writeChunk(chunk, writer, results);
+                    chunk = new ArrayList<>(bulkProperties.getChunkSize());
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, writer, results);
+        }
+        log.info("Bulk request processed - total: {}, succeeded: {}, failed: {}",
+                results.total, results.succeeded, results.failed);
+        return results.toResponse();
+    }
+
+    private <T> BulkItemResult validate(int index, BulkInput<T> input) {
+        if (input.error() != null) {
+            return BulkItemResult.builder()
+                    .index(index)
+                    .status(BulkItemResult.Status.INVALID)
+                    .message(input.error())
+                    .build();
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(input.value());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Map<String, String> errors = violations.stream()
+                .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage, (first, second) -> first, LinkedHashMap::new));
+        return BulkItemResult.builder()
+                .index(index)
+                .status(BulkItemResult.Status.INVALID)
+                .message("Validation failed")
+                .errors(errors)
+                .build();
+    }
+
+    private <T> void writeChunk(List<Item<T>> chunk, Function<List<Item<T>>, List<BulkItemResult>> writer,
+                                Results results) {
+        try {
+            transactionTemplate.execute(status -> writer.apply(chunk)).forEach(results::add);
+        } catch (RuntimeException ex) {
+            log.warn("Bulk chunk of {} items starting at index {} failed", chunk.size(), chunk.getFirst().index(), ex);
+            chunk.forEach(item -> results.add(BulkItemResult.builder()
+                    .index(item.index())
+                    .status(BulkItemResult.Status.FAILED)
+                    .message(ex.getMessage())
+                    .build()));
+        }
+    }
+
+    private List<BulkItemResult> insertChunk(List<Item<ProductRequest>> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = chunk.stream()
+                .map(item -> ProductService.mapToEntity(item.value()))
+                .toList();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Product product = products.get(i);
+                        ps.setString(1, product.getName());
+                        ps.setString(2, product.getDescription());
+                        ps.setBigDecimal(3, product.getPrice());
+                        ps.setInt(4, product.getQuantity());
+                        ps.setString(5, product.getCategory());
+                        ps.setBoolean(6, product.getIsActive());
+                        ps.setObject(7, now);
+                        ps.setObject(8, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = products.get(i);
+            product.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            product.setVersion(0L);
+            eventPublisher.publishEvent(ProductChangedEvent.created(ProductService.mapToResponse(product)));
+            results.add(success(chunk.get(i).index(), product.getId(), BulkItemResult.Status.CREATED));
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> updateChunk(List<Item<BulkUpdateRequest>> chunk) {
+        Map<Long, Product> products = findAllById(chunk.stream().map(item -> item.value().getId()).toList());
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        List<ProductResponse> before = new ArrayList<>(chunk.size());
+        List<Product> updated = new ArrayList<>(chunk.size());
+        for (Item<BulkUpdateRequest> item : chunk) {
+            Product product = products.get(item.value().getId());
+            if (product == null) {
+                results.add(notFound(item.index(), item.value().getId()));
+                continue;
+            }
+            if (ProductService.isStale(product, item.value().getProduct())) {
+                results.add(BulkItemResult.builder()
+                        .index(item.index())
+                        .id(product.getId())
+                        .status(BulkItemResult.Status.CONFLICT)
+                        .message("Product was modified, expected version " + item.value().getProduct().getVersion()
+                                + " but found " + product.getVersion())
+                        .build());
+                continue;
+            }
+            before.add(ProductService.mapToResponse(product));
+            ProductService.applyRequest(product, item.value().getProduct());
+            updated.add(product);
+            results.add(success(item.index(), product.getId(), BulkItemResult.Status.UPDATED));
+        }
+        productRepository.flush();
+        for (int i = 0; i < updated.size(); i++) {
+            eventPublisher.publishEvent(ProductChangedEvent.updated(before.get(i),
+                    ProductService.mapToResponse(updated.get(i))));
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> deleteChunk(List<Item<Long>> chunk) {
+        Map<Long, Product> products = findAllById(chunk.stream().map(Item::value).toList());
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (Item<Long> item : chunk) {
+            results.add(products.containsKey(item.value())
+                    ? success(item.index(), item.value(), BulkItemResult.Status.DELETED)
+                    : notFound(item.index(), item.value()));
+        }
+        if (!products.isEmpty()) {
+            productRepository.deleteAllInBatch(products.values());
+            products.values().forEach(product ->
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductService.mapToResponse(product))));
+        }
+        return results;
+    }
+
+    private Map<Long, Product> findAllById(List<Long> ids) {
+        return productRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private static BulkItemResult success(int index, Long id, BulkItemResult.Status status) {
+        return BulkItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .build();
+    }
+
+    private static BulkItemResult notFound(int index, Long id) {
+        return BulkItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(BulkItemResult.Status.NOT_FOUND)
+                .message("Product not found with id : '" + id + "'")
+                .build();
+    }
+
+    private record Item<T>(int index, T value) {
+    }
+
+    private static final class Results {
+
+        private final boolean errorsOnly;
+        private final List<BulkItemResult> items = new ArrayList<>();
+        private long total;
+        private long succeeded;
+        private long failed;
+
+        private Results(boolean errorsOnly) {
+            this.errorsOnly = errorsOnly;
+        }
+
+        private void add(BulkItemResult result) {
+            total++;
+            if (result.isSucceeded()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+            if (!errorsOnly || !result.isSucceeded()) {
+                items.add(result);
+            }
+        }
+
+        private BulkResponse toResponse() {
+            items.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+            return BulkResponse.builder()
+                    .total(total)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .items(items)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Product counts for estimated page totals. Both counts are taken with {@code COUNT(*)} on startup and
+ * every {@code app.paging.count-refresh-interval}, and moved by committed creates, deletes and
+ * activation changes in between, so they drift only by writes that bypass the service layer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCountEstimator {
+
+    private static final long UNKNOWN = -1;
+
+    private final ProductRepository productRepository;
+    private final AtomicLong total = new AtomicLong(UNKNOWN);
+    private final AtomicLong active = new AtomicLong(UNKNOWN);
+
+    public long total() {
+        if (total.get() == UNKNOWN) {
+            refresh();
+        }
+        return Math.max(0, total.get());
+    }
+
+    public long active() {
+        if (active.get() == UNKNOWN) {
+            refresh();
+        }
+        return Math.max(0, active.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.paging.count-refresh-interval}",
+            initialDelayString = "${app.paging.count-refresh-interval}")
+    public void refresh() {
+        total.set(productRepository.count());
+        active.set(productRepository.countByIsActiveTrue());
+        log.debug("Refreshed product counts: {} total, {} active", total.get(), active.get());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        adjust(total, (event.after() != null ? 1 : 0) - (event.before() != null ? 1 : 0));
+        adjust(active, isActive(event.after()) - isActive(event.before()));
+    }
+
+    private static void adjust(AtomicLong count, int delta) {
+        if (delta != 0) {
+            count.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : current + delta);
+        }
+    }
+
+    private static int isActive(ProductResponse product) {
+        return product != null && Boolean.TRUE.equals(product.getIsActive()) ? 1 : 0;
+    }
+}
@@ -0,0 +1,123 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import id.my.hendisantika.springboot4sample.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Opaque continuation token for keyset pagination. It carries the sort key and id of the
+ * row the next (or previous) page starts after, so the repository can seek with an indexed
+ * predicate instead of skipping rows with OFFSET.
+ */
+record ProductCursor(SortKey sortKey, Sort.Direction sortDirection, ScrollPosition.Direction scrollDirection,
+                     Object value, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    static ProductCursor first(String sortBy, String sortDir) {
+        return new ProductCursor(SortKey.of(sortBy), direction(sortDir), ScrollPosition.Direction.FORWARD, null, null);
+    }
+
+    static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 5);
+            SortKey sortKey = SortKey.of(parts[0]);
+            return new ProductCursor(
+                    sortKey,
+                    Sort.Direction.valueOf(parts[1]),
+                    ScrollPosition.Direction.valueOf(parts[2]),
+                    sortKey.parse(parts[4]),
+                    Long.valueOf(parts[3]));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    static ProductCursor from(SortKey sortKey, Sort.Direction sortDirection,
+                              ScrollPosition.Direction scrollDirection, ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        return new ProductCursor(sortKey, sortDirection, scrollDirection,
+                keys.get(sortKey.property), (Long) keys.get(SortKey.ID.property));
+    }
+
+    private static Sort.Direction direction(String sortDir) {
+        return sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    Sort sort() {
+        Sort sort = Sort.by(sortDirection, sortKey.property);
+        return sortKey == SortKey.ID ? sort : sort.and(Sort.by(sortDirection, SortKey.ID.property));
+    }
+
+    ScrollPosition position() {
+        if (id == null) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortKey.property, value);
+        keys.put(SortKey.ID.property, id);
+        return ScrollPosition.of(keys, scrollDirection);
+    }
+
+    boolean isInitial() {
+        return id == null;
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sortKey.property, sortDirection.name(), scrollDirection.name(),
+                String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Columns that can drive keyset pagination. They have to be non-null and backed by a
+     * {@code (column, id)} index on the {@code products} table.
+     */
+    enum SortKey {
+        ID("id", Long::valueOf),
+        NAME("name", raw -> raw),
+        PRICE("price", BigDecimal::new),
+        QUANTITY("quantity", Integer::valueOf),
+        CREATED_AT("createdAt", LocalDateTime::parse);
+
+        private final String property;
+        private final Function<String, Object> parser;
+
+        SortKey(String property, Function<String, Object> parser) {
+            this.property = property;
+            this.parser = parser;
+        }
+
+        static SortKey of(String property) {
+            return Arrays.stream(values())
+                    .filter(key -> key.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Cursor pagination does not support sorting by " + property));
+        }
+
+        Object parse(String raw) {
+            return parser.apply(raw);
+        }
+    }
+}
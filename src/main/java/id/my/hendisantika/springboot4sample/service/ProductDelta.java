@@ -0,0 +1,30 @@
+package id.my.hendisantika.springboot4sample.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Quantity and price change for one product. Two deltas for the same product coalesce only when
+ * neither lowers the quantity: increments are never rejected for insufficient stock, so their sum
+ * behaves exactly like applying them one after the other. Quantities add up and the later price wins.
+ */
+public record ProductDelta(Long productId, int quantityDelta, BigDecimal price) {
+
+    public boolean coalescesWith(ProductDelta later) {
+        return quantityDelta >= 0 && later.quantityDelta >= 0;
+    }
+
+    public ProductDelta plus(ProductDelta later) {
+        return new ProductDelta(productId, quantityDelta + later.quantityDelta,
+                later.price != null ? later.price : price);
+    }
+}
@@ -1,21 +1,54 @@
 package id.my.hendisantika.springboot4sample.service;
 
+import id.my.hendisantika.springboot4sample.cache.CacheGenerations;
+import id.my.hendisantika.springboot4sample.catalog.CatalogSnapshot;
+import id.my.hendisantika.springboot4sample.catalog.ProductFilter;
+import id.my.hendisantika.springboot4sample.config.CacheConfig;
+import id.my.hendisantika.springboot4sample.dto.PageTotal;
 import id.my.hendisantika.springboot4sample.dto.PagedResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductFacets;
+import id.my.hendisantika.springboot4sample.dto.ProductField;
+import id.my.hendisantika.springboot4sample.dto.ProductFilterResponse;
 import id.my.hendisantika.springboot4sample.dto.ProductRequest;
 import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.dto.ProductVersion;
 import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
+import id.my.hendisantika.springboot4sample.exception.ConflictException;
 import id.my.hendisantika.springboot4sample.exception.ResourceNotFoundException;
+import id.my.hendisantika.springboot4sample.exception.ServiceUnavailableException;
 import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import id.my.hendisantika.springboot4sample.repository.ProductSpecifications;
+import id.my.hendisantika.springboot4sample.search.ProductSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Created by IntelliJ IDEA.
@@ -29,118 +62,468 @@ import java.util.List;
  * To change this template use File | Settings | File Templates.
  */
 @Service
+@Timed("product.service")
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final CacheGenerations cacheGenerations;
+    private final ProductCountEstimator productCountEstimator;
+    private final CatalogSnapshot catalogSnapshot;
 
     public ProductResponse createProduct(ProductRequest request) {
-        log.info("Creating new product: {}", request.getName());
+        log.debug("Creating new product: {}", request.getName());
         Product product = mapToEntity(request);
         Product savedProduct = productRepository.save(product);
         log.info("Product created with ID: {}", savedProduct.getId());
-        return mapToResponse(savedProduct);
+        ProductResponse response = mapToResponse(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(response));
+        return response;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Reads through {@link CacheConfig#PRODUCTS}. No transaction is started for it, so a hit takes
+     * no connection and a miss reads in the repository's own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(Long id) {
-        log.info("Fetching product with ID: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return mapToResponse(product);
+        log.debug("Fetching product with ID: {}", id);
+        return cacheGenerations.getOrLoad(CacheConfig.PRODUCTS, id, () -> readProduct(id));
+    }
+
+    /**
+     * Reads the product from the database, bypassing {@link CacheConfig#PRODUCTS}.
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse loadProductById(Long id) {
+        log.debug("Loading product with ID: {}", id);
+        return readProduct(id);
     }
 
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
-        log.info("Fetching all products");
-        return productRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        log.debug("Fetching all products");
+        return productRepository.findAllResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getAllProducts(Set<ProductField> fields) {
+        log.debug("Fetching all products with fields: {}", fields);
+        return productRepository.findProjected(null, fields, Pageable.unpaged(Sort.by("id")));
     }
 
+    /**
+     * Streams every product to {@code consumer} from a forward-only cursor, detaching each row once
+     * it has been handed over so memory stays flat regardless of table size.
+     */
     @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> getAllProductsPaged(int page, int size, String sortBy, String sortDir) {
-        log.info("Fetching products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+    public void exportProducts(Consumer<ProductResponse> consumer) {
+        log.debug("Exporting all products");
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            products.forEach(product -> {
+                consumer.accept(mapToResponse(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    /**
+     * Offset page of all (or only active) products. With {@link PageTotal#EXACT} the totals come from a
+     * {@code COUNT(*)}; otherwise a {@link Slice} is read and the totals are either left out or
+     * estimated from {@link ProductCountEstimator}. An estimate is never below what the page itself
+     * proves, and it is exact on the last page.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductResponse> getAllProductsPaged(int page, int size, String sortBy, String sortDir,
+                                                              boolean activeOnly, PageTotal total) {
+        log.debug("Fetching products - page: {}, size: {}, sortBy: {}, sortDir: {}, activeOnly: {}, total: {}",
+                page, size, sortBy, sortDir, activeOnly, total);
         Sort sort = sortDir.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> productPage = productRepository.findAll(pageable);
+        Slice<Product> productPage = switch (total) {
+            case EXACT -> activeOnly
+                    ? productRepository.findByIsActiveTrue(pageable)
+                    : productRepository.findAll(pageable);
+            case ESTIMATE, NONE -> activeOnly
+                    ? productRepository.findSliceByIsActiveTrue(pageable)
+                    : productRepository.findSliceBy(pageable);
+        };
 
         List<ProductResponse> content = productPage.getContent()
                 .stream()
-                .map(this::mapToResponse)
+                .map(ProductService::mapToResponse)
                 .toList();
 
-        return PagedResponse.<ProductResponse>builder()
+        PagedResponse.PagedResponseBuilder<ProductResponse> response = PagedResponse.<ProductResponse>builder()
                 .content(content)
                 .page(productPage.getNumber())
                 .size(productPage.getSize())
-                .totalElements(productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
                 .last(productPage.isLast())
-                .first(productPage.isFirst())
+                .first(productPage.isFirst());
+        if (productPage instanceof Page<Product> exact) {
+            response.totalElements(exact.getTotalElements())
+                    .totalPages(exact.getTotalPages());
+        } else if (total == PageTotal.ESTIMATE) {
+            long offset = pageable.getOffset();
+            long seen = offset + content.size();
+            long estimate = activeOnly ? productCountEstimator.active() : productCountEstimator.total();
+            // an empty page past the end only tells that there are at most offset rows
+            boolean exact = !productPage.hasNext() && (!content.isEmpty() || offset == 0);
+            long totalElements = productPage.hasNext() ? Math.max(seen + 1, estimate)
+                    : exact ? seen
+                    : Math.min(offset, estimate);
+            response.totalElements(totalElements)
+                    .totalPages((int) ((totalElements + size - 1) / size))
+                    .totalEstimated(!exact);
+        }
+        return response.build();
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductResponse> getProductsByCursor(String cursor, int size, String sortBy, String sortDir) {
+        log.debug("Fetching products by cursor - size: {}, sortBy: {}, sortDir: {}", size, sortBy, sortDir);
+        ProductCursor position = cursor != null
+                ? ProductCursor.decode(cursor)
+                : ProductCursor.first(sortBy, sortDir);
+        Window<Product> window = productRepository.findAllBy(position.position(), position.sort(), Limit.of(size));
+
+        List<ProductResponse> content = window.getContent()
+                .stream()
+                .map(ProductService::mapToResponse)
+                .toList();
+
+        boolean backward = position.scrollDirection() == ScrollPosition.Direction.BACKWARD;
+        boolean hasMoreAfter = backward ? !position.isInitial() : window.hasNext();
+        boolean hasMoreBefore = backward ? window.hasNext() : !position.isInitial();
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!window.isEmpty()) {
+            if (hasMoreAfter) {
+                nextCursor = ProductCursor.from(position.sortKey(), position.sortDirection(),
+                        ScrollPosition.Direction.FORWARD, window.positionAt(window.size() - 1)).encode();
+            }
+            if (hasMoreBefore) {
+                prevCursor = ProductCursor.from(position.sortKey(), position.sortDirection(),
+                        ScrollPosition.Direction.BACKWARD, window.positionAt(0)).encode();
+            }
+        }
+
+        return PagedResponse.<ProductResponse>builder()
+                .content(content)
+                .size(size)
+                .first(prevCursor == null)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
                 .build();
     }
 
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        log.info("Updating product with ID: {}", id);
+        log.debug("Updating product with ID: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-
-        product.setName(request.getName());
-        product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
-        product.setQuantity(request.getQuantity());
-        product.setCategory(request.getCategory());
-        if (request.getIsActive() != null) {
-            product.setIsActive(request.getIsActive());
+        if (isStale(product, request)) {
+            throw new ConflictException("Product with id : '" + id + "' was modified, expected version "
+                    + request.getVersion() + " but found " + product.getVersion());
         }
+        ProductResponse before = mapToResponse(product);
 
-        Product updatedProduct = productRepository.save(product);
+        applyRequest(product, request);
+
+        Product updatedProduct = productRepository.saveAndFlush(product);
         log.info("Product updated successfully: {}", updatedProduct.getId());
-        return mapToResponse(updatedProduct);
+        ProductResponse response = mapToResponse(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, response));
+        return response;
+    }
+
+    /**
+     * Adjusts stock with one conditional UPDATE and no entity load, so concurrent adjustments of a
+     * hot product only wait on its row lock for that statement. Stock never drops below zero; the
+     * version is bumped so full updates based on the old quantity are rejected.
+     */
+    public ProductResponse adjustStock(Long id, int delta) {
+        log.debug("Adjusting stock of product with ID: {} by {}", id, delta);
+        if (productRepository.adjustQuantity(id, delta, LocalDateTime.now()) == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Product", "id", id);
+            }
+            throw new ConflictException("Insufficient stock for product with id : '" + id + "'");
+        }
+        ProductResponse response = productRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        ProductResponse before = response.toBuilder()
+                .quantity(response.getQuantity() - delta)
+                .build();
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, response));
+        return response;
+    }
+
+    /**
+     * Applies a quantity and/or price delta to one product right away.
+     */
+    public ProductResponse patchProduct(ProductDelta delta) {
+        log.debug("Patching product with ID: {}", delta.productId());
+        Product product = productRepository.findById(delta.productId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", delta.productId()));
+        ProductResponse before = mapToResponse(product);
+        if (!applyDelta(product, delta)) {
+            throw new ConflictException("Insufficient stock for product with id : '" + delta.productId() + "'");
+        }
+        ProductResponse response = mapToResponse(productRepository.saveAndFlush(product));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, response));
+        return response;
+    }
+
+    /**
+     * Applies deltas to many products in the current transaction. Rows are locked in id order and
+     * each product's deltas are applied in the given order, so a delta that would take the stock
+     * below zero is rejected on its own, exactly as it would have been synchronously, and the deltas
+     * after it still apply. Returns the rejected deltas, including those for deleted products.
+     */
+    public List<ProductDelta> applyDeltas(Collection<ProductDelta> deltas) {
+        Map<Long, List<ProductDelta>> byId = deltas.stream()
+                .collect(Collectors.groupingBy(ProductDelta::productId, LinkedHashMap::new, Collectors.toList()));
+        List<Product> products = productRepository.findAllByIdForUpdate(byId.keySet());
+        List<ProductResponse> before = new ArrayList<>(products.size());
+        List<ProductDelta> rejected = new ArrayList<>();
+        for (Product product : products) {
+            before.add(mapToResponse(product));
+            for (ProductDelta delta : byId.remove(product.getId())) {
+                if (!applyDelta(product, delta)) {
+                    rejected.add(delta);
+                }
+            }
+        }
+        productRepository.flush();
+        byId.values().forEach(rejected::addAll);
+        for (int i = 0; i < products.size(); i++) {
+            eventPublisher.publishEvent(ProductChangedEvent.updated(before.get(i), mapToResponse(products.get(i))));
+        }
+        return rejected;
     }
 
     public void deleteProduct(Long id) {
-        log.info("Deleting product with ID: {}", id);
+        log.debug("Deleting product with ID: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         productRepository.delete(product);
         log.info("Product deleted successfully: {}", id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(mapToResponse(product)));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Reads through {@link CacheConfig#PRODUCTS_BY_CATEGORY}, without a transaction of its own.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductResponse> getProductsByCategory(String category) {
-        log.info("Fetching products by category: {}", category);
-        return productRepository.findByCategory(category)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        log.debug("Fetching products by category: {}", category);
+        return cacheGenerations.getOrLoad(CacheConfig.PRODUCTS_BY_CATEGORY, category,
+                () -> productRepository.findResponsesByCategory(category));
+    }
+
+    /**
+     * Reads the category from the database, bypassing {@link CacheConfig#PRODUCTS_BY_CATEGORY}.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> loadProductsByCategory(String category) {
+        log.debug("Loading products by category: {}", category);
+        return productRepository.findResponsesByCategory(category);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByCategory(String category, Set<ProductField> fields) {
+        log.debug("Fetching products by category: {} with fields: {}", category, fields);
+        return productRepository.findProjected(ProductSpecifications.hasCategory(category), fields, Pageable.unpaged());
     }
 
+    /**
+     * Returns up to {@code limit} products for each category, keyed in request order. Categories
+     * already in the {@link CacheConfig#PRODUCTS_BY_CATEGORY} cache are served from it; the rest
+     * are loaded with a single query that applies the per-category limit and {@code activeOnly} in
+     * the database. Those partial lists are not cached.
+     */
     @Transactional(readOnly = true)
+    public Map<String, List<ProductResponse>> getProductsByCategories(Collection<String> categories, int limit,
+                                                                     boolean activeOnly) {
+        log.debug("Fetching products for {} categories, limit {}", categories.size(), limit);
+        Map<String, List<ProductResponse>> byCategory = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String category : categories) {
+            List<ProductResponse> cached = cacheGenerations.getIfPresent(CacheConfig.PRODUCTS_BY_CATEGORY, category);
+            if (cached != null) {
+                byCategory.put(category, cached.stream()
+                        .filter(product -> !activeOnly || Boolean.TRUE.equals(product.getIsActive()))
+                        .limit(limit)
+                        .toList());
+            } else {
+                byCategory.put(category, List.of());
+                misses.add(category);
+            }
+        }
+        if (!misses.isEmpty()) {
+            productRepository.findFirstPerCategory(misses, activeOnly, limit)
+                    .stream()
+                    .map(ProductService::mapToResponse)
+                    .collect(Collectors.groupingBy(ProductResponse::getCategory))
+                    .forEach(byCategory::put);
+        }
+        return byCategory;
+    }
+
+    /**
+     * Reads through {@link CacheConfig#ACTIVE_PRODUCTS}, without a transaction of its own.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductResponse> getActiveProducts() {
-        log.info("Fetching active products");
-        return productRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        log.debug("Fetching active products");
+        return cacheGenerations.getOrLoad(CacheConfig.ACTIVE_PRODUCTS, CacheConfig.ACTIVE_PRODUCTS_KEY,
+                productRepository::findActiveResponses);
     }
 
     @Transactional(readOnly = true)
-    public List<ProductResponse> searchProducts(String keyword) {
-        log.info("Searching products with keyword: {}", keyword);
-        return productRepository.searchByKeyword(keyword)
-                .stream()
-                .map(this::mapToResponse)
+    public List<ProductResponse> getActiveProducts(Set<ProductField> fields) {
+        log.debug("Fetching active products with fields: {}", fields);
+        return productRepository.findProjected(ProductSpecifications.isActive(), fields, Pageable.unpaged());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String keyword, int page, int size) {
+        return searchProducts(keyword, page, size, null);
+    }
+
+    /**
+     * Searches by keyword, reading only {@code fields} when given and every column otherwise.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String keyword, int page, int size, Set<ProductField> fields) {
+        log.debug("Searching products with keyword: {}, page: {}, size: {}", keyword, page, size);
+        if (!productSearchIndex.isReady()) {
+            PageRequest pageable = PageRequest.of(page, size, Sort.by("id"));
+            return fields == null
+                    ? productRepository.searchResponsesByKeyword(keyword, pageable)
+                    : productRepository.findProjected(ProductSpecifications.matchesKeyword(keyword), fields, pageable);
+        }
+        return findInOrder(productSearchIndex.search(keyword, page, size), fields);
+    }
+
+    /**
+     * Filters and sorts on the {@link CatalogSnapshot}, then reads only the rows of the requested
+     * page by primary key.
+     */
+    @Transactional(readOnly = true)
+    public ProductFilterResponse filterProducts(ProductFilter filter) {
+        log.debug("Filtering products: {}", filter);
+        if (!catalogSnapshot.isReady()) {
+            throw new ServiceUnavailableException("Product filtering is not available yet, please retry shortly");
+        }
+        CatalogSnapshot.Result result = catalogSnapshot.filter(filter);
+        int totalPages = (int) ((result.totalElements() + filter.size() - 1) / filter.size());
+        PagedResponse<ProductResponse> products = PagedResponse.<ProductResponse>builder()
+                .content(findInOrder(result.ids(), null))
+                .page(filter.page())
+                .size(filter.size())
+                .totalElements(result.totalElements())
+                .totalPages(totalPages)
+                .first(filter.page() == 0)
+                .last(filter.page() + 1 >= totalPages)
+                .build();
+        ProductFacets facets = ProductFacets.builder()
+                .categories(result.categories())
+                .active(result.active())
+                .inactive(result.inactive())
+                .inStock(result.inStock())
+                .outOfStock(result.outOfStock())
+                .build();
+        return ProductFilterResponse.builder()
+                .products(products)
+                .facets(facets)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductVersion getProductVersion(Long id) {
+        return productRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductVersion getAllProductsVersion() {
+        return productRepository.findVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductVersion getProductsByCategoryVersion(String category) {
+        return productRepository.findVersionByCategory(category);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductVersion getActiveProductsVersion() {
+        return productRepository.findActiveVersion();
+    }
+
+    /**
+     * Loads the given products, reading only {@code fields} when given, in the order of {@code ids}.
+     * Ids of products deleted meanwhile are skipped.
+     */
+    private List<ProductResponse> findInOrder(List<Long> ids, Set<ProductField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ProductResponse> matches = fields == null
+                ? productRepository.findResponsesByIdIn(ids)
+                : productRepository.findProjected(ProductSpecifications.hasIdIn(ids), fields, Pageable.unpaged());
+        Map<Long, ProductResponse> byId = matches.stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
-    private Product mapToEntity(ProductRequest request) {
+    /**
+     * Returns false, leaving the product untouched, when the delta would take the stock below zero.
+     */
+    private static boolean applyDelta(Product product, ProductDelta delta) {
+        int quantity = product.getQuantity() + delta.quantityDelta();
+        if (quantity < 0) {
+            return false;
+        }
+        product.setQuantity(quantity);
+        if (delta.price() != null) {
+            product.setPrice(delta.price());
+        }
+        return true;
+    }
+
+    static boolean isStale(Product product, ProductRequest request) {
+        return request.getVersion() != null && !request.getVersion().equals(product.getVersion());
+    }
+
+    static void applyRequest(Product product, ProductRequest request) {
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setQuantity(request.getQuantity());
+        product.setCategory(request.getCategory());
+        if (request.getIsActive() != null) {
+            product.setIsActive(request.getIsActive());
+        }
+    }
+
+    private ProductResponse readProduct(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        return mapToResponse(product);
+    }
+
+    static Product mapToEntity(ProductRequest request) {
         return Product.builder()
                 .name(request.getName())
                 .description(request.getDescription())
@@ -151,7 +534,7 @@ public class ProductService {
                 .build();
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    static ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
@@ -162,6 +545,7 @@ public class ProductService {
                 .isActive(product.getIsActive())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 }
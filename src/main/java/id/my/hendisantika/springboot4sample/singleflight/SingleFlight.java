@@ -0,0 +1,111 @@
+package id.my.hendisantika.springboot4sample.singleflight;
+
+import id.my.hendisantika.springboot4sample.config.SingleFlightProperties;
+import id.my.hendisantika.springboot4sample.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Collapses concurrent calls for the same key into one. The first caller runs the loader on its own
+ * thread; callers arriving while it runs wait for its result, or its exception, instead of issuing
+ * the same query. Waiting is bounded by the timeout configured for the call name, after which the
+ * caller gets a 503. Nothing is kept once the call completes, so this is not a cache.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+
+    private static final String METRIC_NAME = "singleflight.calls";
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final SingleFlightProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct keys currently being loaded")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        Key callKey = new Key(name, key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(callKey, call);
+        if (existing != null) {
+            return (T) await(name, key, existing);
+        }
+        counter(name, "leader").increment();
+        try {
+            T result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(callKey, call);
+        }
+    }
+
+    private Object await(String name, Object key, CompletableFuture<Object> call) {
+        Duration timeout = properties.getTimeouts().getOrDefault(name, properties.getTimeout());
+        try {
+            Object result = call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            counter(name, "collapsed").increment();
+            return result;
+        } catch (ExecutionException ex) {
+            counter(name, "collapsed").increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            counter(name, "timeout").increment();
+            log.warn("Gave up waiting {} for in-flight {} call for key {}", timeout, name, key);
+            throw new ServiceUnavailableException("Request is taking too long, please retry shortly");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Request was interrupted, please retry shortly");
+        }
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Calls through the single-flight layer, by whether they ran the loader, "
+                        + "shared another call's result or timed out waiting for it")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
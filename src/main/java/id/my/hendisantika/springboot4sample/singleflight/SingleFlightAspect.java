@@ -0,0 +1,81 @@
+package id.my.hendisantika.springboot4sample.singleflight;
+
+import id.my.hendisantika.springboot4sample.datasource.ReplicaRouting;
+import id.my.hendisantika.springboot4sample.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Puts {@link SingleFlight} in front of the cached {@link ProductService} reads and the uncached
+ * loads behind the encoded response cache, outside the transaction advice, so when an entry
+ * expires only one caller per key reaches the database. The two never share a call, since a load
+ * must not be answered from the cache.
+ * Calls made inside a running transaction are not collapsed, since they may see its uncommitted
+ * writes, and callers pinned to the primary only share results with each other.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.single-flight", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+
+    private final SingleFlight singleFlight;
+
+    @Around("execution(* id.my.hendisantika.springboot4sample.service.ProductService.getProductById(Long)) && args(id)")
+    public Object productById(ProceedingJoinPoint joinPoint, Long id) {
+        return collapse("product", id, joinPoint);
+    }
+
+    @Around("execution(* id.my.hendisantika.springboot4sample.service.ProductService.getProductsByCategory(String)) && args(category)")
+    public Object productsByCategory(ProceedingJoinPoint joinPoint, String category) {
+        return collapse("productsByCategory", category, joinPoint);
+    }
+
+    @Around("execution(* id.my.hendisantika.springboot4sample.service.ProductService.loadProductById(Long)) && args(id)")
+    public Object productLoad(ProceedingJoinPoint joinPoint, Long id) {
+        return collapse("productLoad", id, joinPoint);
+    }
+
+    @Around("execution(* id.my.hendisantika.springboot4sample.service.ProductService.loadProductsByCategory(String)) && args(category)")
+    public Object productsByCategoryLoad(ProceedingJoinPoint joinPoint, String category) {
+        return collapse("productsByCategoryLoad", category, joinPoint);
+    }
+
+    private Object collapse(String name, Object key, ProceedingJoinPoint joinPoint) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return proceed(joinPoint);
+        }
+        Object callKey = ReplicaRouting.isPinnedToPrimary() ? List.of(key, "primary") : key;
+        return singleFlight.execute(name, callKey, () -> proceed(joinPoint));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
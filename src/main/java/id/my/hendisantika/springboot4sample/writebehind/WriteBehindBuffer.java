@@ -0,0 +1,299 @@
+package id.my.hendisantika.springboot4sample.writebehind;
+
+import id.my.hendisantika.springboot4sample.config.WriteBehindProperties;
+import id.my.hendisantika.springboot4sample.entity.WriteBehindCheckpoint;
+import id.my.hendisantika.springboot4sample.repository.WriteBehindCheckpointRepository;
+import id.my.hendisantika.springboot4sample.service.ProductDelta;
+import id.my.hendisantika.springboot4sample.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Queues product deltas per id in a lock-striped buffer and writes them in one transaction every
+ * {@code app.write-behind.flush-interval} or once {@code app.write-behind.max-pending} products are
+ * waiting. Each product keeps its deltas in arrival order, consecutive increments coalesced, so the
+ * flush can reject a delta that would oversell without losing the others. Every delta is appended
+ * to the local journal before it is accepted. A flush rotates the journal segment and records that
+ * segment in {@link WriteBehindCheckpoint} together with the deltas, so segments left behind by a
+ * crash are replayed exactly once on startup. Rejected deltas are kept in the journal directory.
+ */
+@Component
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindBuffer implements DisposableBean {
+
+    private final ProductService productService;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+    private final WriteBehindJournal journal;
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock[] stripeLocks;
+    private final List<Map<Long, List<ProductDelta>>> stripes;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final Counter flushed;
+    private final Counter rejected;
+    private final Timer flushTimer;
+
+    public WriteBehindBuffer(ProductService productService, WriteBehindCheckpointRepository checkpointRepository,
+                             TransactionTemplate transactionTemplate, WriteBehindProperties properties,
+                             MeterRegistry meterRegistry) throws IOException {
+        this.productService = productService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        int stripeCount = Integer.highestOneBit(Math.max(properties.getStripes(), 1) * 2 - 1);
+        this.stripeLocks = new ReentrantLock[stripeCount];
+        this.stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripeLocks[i] = new ReentrantLock();
+            stripes.add(new HashMap<>());
+        }
+        this.journal = new WriteBehindJournal(properties.getJournalDir(), properties.isFsync());
+        replay();
+        Gauge.builder("write.behind.pending", pending, AtomicInteger::get)
+                .description("Products with buffered deltas")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("write.behind.flushed")
+                .description("Coalesced product deltas written to the database")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("write.behind.rejected")
+                .description("Buffered deltas rejected at flush time for insufficient stock or a deleted product")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("write.behind.flush")
+                .description("Time to write one batch of buffered deltas")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("write-behind-flush").factory());
+    }
+
+    /**
+     * Starts flushing only once every product change listener is registered, so replayed deltas
+     * also reach the caches, the search index and the category summaries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlushing() {
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Journals {@code delta} and queues it. Returns once the delta is written to the journal, which
+     * survives a process crash; it is forced to disk only with {@code app.write-behind.fsync=true}.
+     */
+    public void submit(ProductDelta delta) {
+        rotationLock.readLock().lock();
+        try {
+            journal.append(delta);
+            append(delta);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (pending.get() >= properties.getMaxPending() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            List<ProductDelta> batch = new ArrayList<>();
+            long segment;
+            rotationLock.writeLock().lock();
+            try {
+                for (int i = 0; i < stripes.size(); i++) {
+                    if (!stripes.get(i).isEmpty()) {
+                        stripes.get(i).values().forEach(batch::addAll);
+                        stripes.set(i, new HashMap<>());
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                pending.set(0);
+                segment = journal.rotate();
+            } catch (IOException ex) {
+                requeue(batch);
+                throw new IllegalStateException("Failed to rotate write-behind journal", ex);
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            write(batch, segment);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.getFlushInterval().toMillis() * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        journal.close();
+    }
+
+    private void write(List<ProductDelta> batch, long segment) {
+        List<ProductDelta> dropped;
+        try {
+            dropped = flushTimer.record(() -> transactionTemplate.execute(status -> {
+                List<ProductDelta> result = productService.applyDeltas(batch);
+                checkpointRepository.save(new WriteBehindCheckpoint(properties.getNodeId(), segment, LocalDateTime.now()));
+                return result;
+            }));
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind flush of {} deltas failed, retrying with the next flush", batch.size(), ex);
+            rotationLock.readLock().lock();
+            try {
+                requeue(batch);
+            } finally {
+                rotationLock.readLock().unlock();
+            }
+            return;
+        }
+        flushed.increment(batch.size() - dropped.size());
+        if (!dropped.isEmpty()) {
+            rejected.increment(dropped.size());
+            log.warn("Rejected {} write-behind deltas for insufficient stock or deleted products: {}",
+                    dropped.size(), dropped);
+            try {
+                journal.reject(dropped);
+            } catch (IOException ex) {
+                log.error("Failed to journal rejected write-behind deltas {}", dropped, ex);
+            }
+        }
+        try {
+            journal.deleteUpTo(segment);
+        } catch (IOException ex) {
+            log.warn("Failed to delete flushed write-behind journal segments up to {}", segment, ex);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.error("Write-behind flush failed", ex);
+        }
+    }
+
+    private void append(ProductDelta delta) {
+        int stripe = stripe(delta.productId());
+        stripeLocks[stripe].lock();
+        try {
+            List<ProductDelta> queued = stripes.get(stripe).get(delta.productId());
+            if (queued == null) {
+                queued = new ArrayList<>(1);
+                stripes.get(stripe).put(delta.productId(), queued);
+                pending.incrementAndGet();
+            }
+            coalesce(queued, delta);
+        } finally {
+            stripeLocks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Puts the deltas of a failed flush back in front of those queued since, keeping their order.
+     */
+    private void requeue(List<ProductDelta> batch) {
+        Map<Long, List<ProductDelta>> byId = batch.stream()
+                .collect(Collectors.groupingBy(ProductDelta::productId, LinkedHashMap::new, Collectors.toList()));
+        byId.forEach((productId, retried) -> {
+            int stripe = stripe(productId);
+            stripeLocks[stripe].lock();
+            try {
+                List<ProductDelta> queued = new ArrayList<>(retried);
+                List<ProductDelta> later = stripes.get(stripe).put(productId, queued);
+                if (later == null) {
+                    pending.incrementAndGet();
+                } else {
+                    later.forEach(delta -> coalesce(queued, delta));
+                }
+            } finally {
+                stripeLocks[stripe].unlock();
+            }
+        });
+    }
+
+    private int stripe(Long productId) {
+        return Long.hashCode(productId) & (stripes.size() - 1);
+    }
+
+    private static void coalesce(List<ProductDelta> queued, ProductDelta delta) {
+        int last = queued.size() - 1;
+        if (last >= 0 && queued.get(last).coalescesWith(delta)) {
+            queued.set(last, queued.get(last).plus(delta));
+        } else {
+            queued.add(delta);
+        }
+    }
+
+    /**
+     * Loads the segments newer than the checkpoint back into the buffer and continues journaling in
+     * a fresh segment, so the first flush covers and then removes all of them.
+     */
+    private void replay() throws IOException {
+        long checkpoint = checkpointRepository.findById(properties.getNodeId())
+                .map(WriteBehindCheckpoint::getSegment)
+                .orElse(-1L);
+        long last = checkpoint;
+        int replayed = 0;
+        for (Long segment : journal.segments()) {
+            if (segment > checkpoint) {
+                for (ProductDelta delta : journal.read(segment)) {
+                    append(delta);
+                    replayed++;
+                }
+            }
+            last = Math.max(last, segment);
+        }
+        journal.deleteUpTo(checkpoint);
+        journal.open(last + 1);
+        if (replayed > 0) {
+            log.info("Replayed {} write-behind deltas from the journal", replayed);
+        }
+    }
+}
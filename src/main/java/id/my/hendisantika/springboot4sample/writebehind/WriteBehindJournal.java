@@ -0,0 +1,142 @@
+package id.my.hendisantika.springboot4sample.writebehind;
+
+import id.my.hendisantika.springboot4sample.service.ProductDelta;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Append-only journal of buffered deltas, split into numbered segments. Each delta is one
+ * {@code productId,quantityDelta,price} line written with a single append, so a crash can at
+ * most tear the last line, which replay skips. Deltas rejected at flush time are kept in
+ * {@code rejected.log} next to the segments, in the same format.
+ */
+@Slf4j
+final class WriteBehindJournal implements Closeable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final String REJECTED = "rejected.log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long segment;
+
+    WriteBehindJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+    }
+
+    List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.valueOf(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    List<ProductDelta> read(long segment) throws IOException {
+        List<ProductDelta> deltas = new ArrayList<>();
+        for (String line : Files.readAllLines(path(segment), StandardCharsets.UTF_8)) {
+            String[] parts = line.split(",", -1);
+            try {
+                deltas.add(new ProductDelta(Long.valueOf(parts[0]), Integer.parseInt(parts[1]),
+                        parts[2].isEmpty() ? null : new BigDecimal(parts[2])));
+            } catch (RuntimeException ex) {
+                log.warn("Skipping unreadable line in write-behind journal segment {}: {}", segment, line);
+            }
+        }
+        return deltas;
+    }
+
+    void open(long segment) throws IOException {
+        this.channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.segment = segment;
+    }
+
+    void append(ProductDelta delta) {
+        try {
+            channel.write(ByteBuffer.wrap(line(delta).getBytes(StandardCharsets.UTF_8)));
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append to write-behind journal", ex);
+        }
+    }
+
+    /**
+     * Appends deltas the database rejected to {@code rejected.log} and forces them to disk.
+     */
+    void reject(List<ProductDelta> deltas) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        deltas.forEach(delta -> lines.append(line(delta)));
+        try (FileChannel rejected = FileChannel.open(directory.resolve(REJECTED), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            rejected.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+            rejected.force(false);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next one. Returns the number of the closed segment.
+     */
+    long rotate() throws IOException {
+        long closed = segment;
+        channel.force(false);
+        channel.close();
+        open(closed + 1);
+        return closed;
+    }
+
+    void deleteUpTo(long segment) throws IOException {
+        for (Long existing : segments()) {
+            if (existing <= segment) {
+                Files.deleteIfExists(path(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private static String line(ProductDelta delta) {
+        return delta.productId() + "," + delta.quantityDelta() + ","
+                + (delta.price() != null ? delta.price().toPlainString() : "") + "\n";
+    }
+
+    private Path path(long segment) {
+        return directory.resolve(PREFIX + String.format("%012d", segment) + SUFFIX);
+    }
+}
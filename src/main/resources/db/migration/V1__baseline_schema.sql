@@ -0,0 +1,17 @@
+-- The products table as previously generated by Hibernate (ddl-auto=update). Databases that already
+-- have it are baselined at this version instead of running it; everything added since comes in the
+-- later migrations.
+
+CREATE TABLE products
+(
+    id          BIGINT         NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(100)   NOT NULL,
+    description VARCHAR(500),
+    price       DECIMAL(10, 2) NOT NULL,
+    quantity    INT            NOT NULL,
+    category    VARCHAR(50),
+    is_active   BIT(1),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
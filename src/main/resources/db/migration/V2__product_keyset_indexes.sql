@@ -0,0 +1,5 @@
+-- Keyset paging: each sort column followed by id, so a page continues from the last (value, id).
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_quantity_id ON products (quantity, id);
+CREATE INDEX idx_products_created_at_id ON products (created_at, id);
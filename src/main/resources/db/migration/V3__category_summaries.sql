@@ -0,0 +1,14 @@
+-- Per-category aggregates kept current by every product write. Rows for existing products are
+-- filled in by the startup reconcile.
+CREATE TABLE category_summaries
+(
+    category       VARCHAR(50)    NOT NULL,
+    product_count  BIGINT         NOT NULL,
+    active_count   BIGINT         NOT NULL,
+    total_quantity BIGINT         NOT NULL,
+    price_sum      DECIMAL(19, 2) NOT NULL,
+    min_price      DECIMAL(10, 2),
+    max_price      DECIMAL(10, 2),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (category)
+) ENGINE = InnoDB;
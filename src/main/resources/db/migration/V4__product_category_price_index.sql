@@ -0,0 +1,2 @@
+-- Recomputing a category's min and max price after the current bound is removed.
+CREATE INDEX idx_products_category_price ON products (category, price);
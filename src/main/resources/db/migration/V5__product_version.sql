@@ -0,0 +1,3 @@
+-- Optimistic locking. Existing rows start at version 0.
+ALTER TABLE products
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
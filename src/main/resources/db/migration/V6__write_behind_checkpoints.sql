@@ -0,0 +1,8 @@
+-- Last write-behind journal segment each node has applied, written with the deltas themselves.
+CREATE TABLE write_behind_checkpoints
+(
+    node_id    VARCHAR(100) NOT NULL,
+    segment    BIGINT       NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (node_id)
+) ENGINE = InnoDB;
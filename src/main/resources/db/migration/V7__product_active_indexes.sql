@@ -0,0 +1,6 @@
+-- findActiveByCategorY: equality on both columns.
+CREATE INDEX idx_products_category_active ON products (category, is_active);
+
+-- findByIsActiveTrue, findActiveResponses, findActiveVersion and the active count: equality on
+-- is_active, rows come back in id order.
+CREATE INDEX idx_products_active_id ON products (is_active, id);
@@ -0,0 +1,12 @@
+-- Change events appended in the same transaction as the product write. The auto-increment id is
+-- the sequence number change-feed consumers resume from.
+CREATE TABLE product_outbox
+(
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    product_id  BIGINT        NOT NULL,
+    change_type VARCHAR(10)   NOT NULL,
+    payload     VARCHAR(4000) NOT NULL,
+    created_at  DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_product_outbox_created_at (created_at)
+) ENGINE = InnoDB;
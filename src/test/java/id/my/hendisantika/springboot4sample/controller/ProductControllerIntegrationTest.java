@@ -1,26 +1,59 @@
 package id.my.hendisantika.springboot4sample.controller;
 
+import id.my.hendisantika.springboot4sample.catalog.CatalogSnapshot;
+import id.my.hendisantika.springboot4sample.catalog.ProductFilter;
+import id.my.hendisantika.springboot4sample.config.CacheConfig;
 import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
 import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.event.ProductChangedEvent;
 import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import id.my.hendisantika.springboot4sample.search.ProductSearchIndex;
+import id.my.hendisantika.springboot4sample.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Created by IntelliJ IDEA.
@@ -34,6 +67,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * To change this template use File | Settings | File Templates.
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(ProductControllerIntegrationTest.BlockingCategoryLoads.class)
 @Testcontainers
 class ProductControllerIntegrationTest {
 
@@ -46,6 +80,18 @@ class ProductControllerIntegrationTest {
     private int port;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private RestClient restClient;
     private String baseUrl;
 
@@ -54,6 +100,7 @@ class ProductControllerIntegrationTest {
         registry.add("spring.datasource.url", mysql::getJdbcUrl);
         registry.add("spring.datasource.username", mysql::getUsername);
         registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("app.rate-limit.api-keys", () -> "greedy-client,other-client");
     }
 
     @BeforeEach
@@ -61,6 +108,8 @@ class ProductControllerIntegrationTest {
         baseUrl = "http://localhost:" + port + "/api/v1.0/products";
         restClient = RestClient.create();
         productRepository.deleteAll();
+        // deleteAll publishes no change events, so drop what earlier tests left in the search index
+        productSearchIndex.rebuild();
     }
 
     @Test
@@ -88,6 +137,31 @@ class ProductControllerIntegrationTest {
         assertThat(data.get("name")).isEqualTo("Test Product");
     }
 
+    @Test
+    @DisplayName("Should route controllers only under the API version path segment")
+    void shouldRouteByVersionPathSegment() {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Routed Product")
+                .price(new BigDecimal("5.00"))
+                .quantity(5)
+                .category("Routing")
+                .isActive(true)
+                .build());
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/" + savedProduct.getId())
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        assertThat(data.get("name")).isEqualTo("Routed Product");
+        assertThatThrownBy(() -> restClient.get()
+                .uri("http://localhost:" + port + "/api/products/" + savedProduct.getId())
+                .retrieve()
+                .toBodilessEntity())
+                .isInstanceOf(RestClientResponseException.class);
+    }
+
     @Test
     @DisplayName("Should get product by ID")
     void shouldGetProductById() {
@@ -207,8 +281,8 @@ class ProductControllerIntegrationTest {
     @Test
     @DisplayName("Should search products by keyword")
     void shouldSearchProducts() {
-        // Create products
-        Product product1 = Product.builder()
+        // Create products through the API so the search index picks them up
+        ProductRequest product1 = ProductRequest.builder()
                 .name("Apple iPhone")
                 .description("Latest smartphone")
                 .price(new BigDecimal("999.00"))
@@ -216,7 +290,7 @@ class ProductControllerIntegrationTest {
                 .isActive(true)
                 .build();
 
-        Product product2 = Product.builder()
+        ProductRequest product2 = ProductRequest.builder()
                 .name("Samsung Galaxy")
                 .description("Android smartphone")
                 .price(new BigDecimal("899.00"))
@@ -224,8 +298,14 @@ class ProductControllerIntegrationTest {
                 .isActive(true)
                 .build();
 
-        productRepository.save(product1);
-        productRepository.save(product2);
+        for (ProductRequest request : List.of(product1, product2)) {
+            restClient.post()
+                    .uri(baseUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(request)
+                    .retrieve()
+                    .toBodilessEntity();
+        }
 
         // Search for smartphone
         Map response = restClient.get()
@@ -238,4 +318,951 @@ class ProductControllerIntegrationTest {
         var products = (java.util.List<?>) response.get("data");
         assertThat(products).hasSize(2);
     }
+
+    @Test
+    @DisplayName("Should page products with a keyset cursor")
+    void shouldPageProductsWithCursor() {
+        for (int i = 1; i <= 5; i++) {
+            productRepository.save(Product.builder()
+                    .name("Product " + i)
+                    .price(new BigDecimal(i * 10 + ".00"))
+                    .quantity(i)
+                    .isActive(true)
+                    .build());
+        }
+
+        Map firstPage = restClient.get()
+                .uri(baseUrl + "/paged?mode=cursor&size=2&sortBy=price")
+                .retrieve()
+                .body(Map.class);
+
+        assertThat(firstPage).isNotNull();
+        Map<String, Object> firstData = (Map<String, Object>) firstPage.get("data");
+        assertThat((List<?>) firstData.get("content")).hasSize(2);
+        assertThat(firstData).doesNotContainKey("totalElements");
+        assertThat(firstData.get("prevCursor")).isNull();
+        String nextCursor = (String) firstData.get("nextCursor");
+        assertThat(nextCursor).isNotNull();
+
+        Map secondPage = restClient.get()
+                .uri(baseUrl + "/paged?size=2&cursor=" + nextCursor)
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Object> secondData = (Map<String, Object>) secondPage.get("data");
+        var content = (List<Map<String, Object>>) secondData.get("content");
+        assertThat(content).extracting(product -> product.get("name"))
+                .containsExactly("Product 3", "Product 4");
+        assertThat(secondData.get("prevCursor")).isNotNull();
+        assertThat(secondData.get("nextCursor")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should rank name matches first and match keyword prefixes")
+    void shouldRankSearchResultsByRelevance() {
+        ProductRequest accessory = ProductRequest.builder()
+                .name("Leather Case")
+                .description("Case for any smartphone")
+                .price(new BigDecimal("19.00"))
+                .quantity(200)
+                .build();
+        ProductRequest phone = ProductRequest.builder()
+                .name("Smartphone X")
+                .description("Flagship device")
+                .price(new BigDecimal("799.00"))
+                .quantity(10)
+                .build();
+
+        for (ProductRequest request : List.of(accessory, phone)) {
+            restClient.post()
+                    .uri(baseUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(request)
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+        assertThat(productSearchIndex.isReady()).isTrue();
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/search?keyword=smartph")
+                .retrieve()
+                .body(Map.class);
+
+        var products = (List<Map<String, Object>>) response.get("data");
+        assertThat(products).extracting(product -> product.get("name"))
+                .containsExactly("Smartphone X", "Leather Case");
+    }
+
+    @Test
+    @DisplayName("Should index products written by another instance from the change feed")
+    void shouldIndexChangesRelayedFromOutbox() throws InterruptedException {
+        // another instance commits the product and its outbox row; this process publishes no event
+        Product product = productRepository.save(Product.builder()
+                .name("Remote Gadget")
+                .price(new BigDecimal("42.00"))
+                .quantity(3)
+                .category("Remote")
+                .isActive(true)
+                .build());
+        jdbcTemplate.update("INSERT INTO product_outbox (product_id, change_type, payload, created_at) VALUES (?, ?, ?, NOW(6))",
+                product.getId(), "CREATED", """
+                        {"id":%d,"name":"Remote Gadget","price":42.00,"quantity":3,"category":"Remote","isActive":true}"""
+                        .formatted(product.getId()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (productSearchIndex.search("gadget", 0, 10).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(productSearchIndex.search("gadget", 0, 10)).containsExactly(product.getId());
+    }
+
+    @Test
+    @DisplayName("Should serve the updated product after a cached read")
+    void shouldInvalidateCachedProductOnUpdate() {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Cached Name")
+                .price(new BigDecimal("10.00"))
+                .quantity(1)
+                .category("Cache")
+                .isActive(true)
+                .build());
+        String productUrl = baseUrl + "/" + savedProduct.getId();
+
+        restClient.get().uri(productUrl).retrieve().toBodilessEntity();
+        restClient.get().uri(baseUrl + "/category/Cache").retrieve().toBodilessEntity();
+
+        restClient.put()
+                .uri(productUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ProductRequest.builder()
+                        .name("Fresh Name")
+                        .price(new BigDecimal("12.00"))
+                        .quantity(2)
+                        .category("Cache")
+                        .build())
+                .retrieve()
+                .toBodilessEntity();
+
+        Map product = restClient.get().uri(productUrl).retrieve().body(Map.class);
+        assertThat(((Map<String, Object>) product.get("data")).get("name")).isEqualTo("Fresh Name");
+
+        Map category = restClient.get().uri(baseUrl + "/category/Cache").retrieve().body(Map.class);
+        var products = (List<Map<String, Object>>) category.get("data");
+        assertThat(products).extracting(item -> item.get("name")).containsExactly("Fresh Name");
+    }
+
+    @Test
+    @DisplayName("Should export products as NDJSON and as a JSON array")
+    void shouldExportProducts() {
+        for (int i = 1; i <= 3; i++) {
+            productRepository.save(Product.builder()
+                    .name("Export " + i)
+                    .price(new BigDecimal("5.00"))
+                    .quantity(i)
+                    .isActive(true)
+                    .build());
+        }
+
+        String ndjson = restClient.get()
+                .uri(baseUrl + "/export")
+                .retrieve()
+                .body(String.class);
+
+        assertThat(ndjson).isNotNull();
+        assertThat(ndjson.lines()).hasSize(3).allMatch(line -> line.startsWith("{\"id\""));
+
+        var array = restClient.get()
+                .uri(baseUrl + "/export?format=json")
+                .retrieve()
+                .body(List.class);
+
+        assertThat(array).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should bulk create, update and delete products with per-item results")
+    void shouldProcessBulkRequests() {
+        var requests = List.of(
+                ProductRequest.builder().name("Bulk 1").price(new BigDecimal("1.00")).quantity(1).build(),
+                ProductRequest.builder().name("").price(new BigDecimal("2.00")).quantity(2).build(),
+                ProductRequest.builder().name("Bulk 3").price(new BigDecimal("3.00")).quantity(3).build());
+
+        Map created = restClient.post()
+                .uri(baseUrl + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(requests)
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Object> createdData = (Map<String, Object>) created.get("data");
+        assertThat(createdData.get("succeeded")).isEqualTo(2);
+        assertThat(createdData.get("failed")).isEqualTo(1);
+        var items = (List<Map<String, Object>>) createdData.get("items");
+        assertThat(items).extracting(item -> item.get("status"))
+                .containsExactly("CREATED", "INVALID", "CREATED");
+        Number firstId = (Number) items.get(0).get("id");
+
+        String ndjson = "{\"id\":" + firstId + ",\"name\":\"Bulk 1 v2\",\"price\":1.50,\"quantity\":5}\n"
+                + "{\"id\":-1,\"name\":\"Missing\",\"price\":1.00,\"quantity\":1}\n";
+        Map updated = restClient.put()
+                .uri(baseUrl + "/bulk")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(ndjson)
+                .retrieve()
+                .body(Map.class);
+
+        var updatedItems = (List<Map<String, Object>>) ((Map<String, Object>) updated.get("data")).get("items");
+        assertThat(updatedItems).extracting(item -> item.get("status")).containsExactly("UPDATED", "NOT_FOUND");
+        assertThat(productRepository.findById(firstId.longValue())).get()
+                .extracting(Product::getName).isEqualTo("Bulk 1 v2");
+
+        Map deleted = restClient.method(org.springframework.http.HttpMethod.DELETE)
+                .uri(baseUrl + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(firstId.longValue()))
+                .retrieve()
+                .body(Map.class);
+
+        assertThat(((Map<String, Object>) deleted.get("data")).get("succeeded")).isEqualTo(1);
+        assertThat(productRepository.findById(firstId.longValue())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields")
+    void shouldReturnSparseFieldSet() {
+        productRepository.save(Product.builder()
+                .name("Keyboard")
+                .description("Mechanical keyboard")
+                .price(new BigDecimal("89.00"))
+                .quantity(15)
+                .category("Peripherals")
+                .isActive(true)
+                .build());
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/category/Peripherals?fields=name,price")
+                .retrieve()
+                .body(Map.class);
+
+        var products = (List<Map<String, Object>>) response.get("data");
+        assertThat(products).hasSize(1);
+        assertThat(products.getFirst()).containsOnlyKeys("id", "name", "price");
+        assertThat(products.getFirst().get("name")).isEqualTo("Keyboard");
+    }
+
+    @Test
+    @DisplayName("Should keep null fields in full responses")
+    void shouldKeepNullFieldsInFullResponses() {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Plain Mouse")
+                .price(new BigDecimal("9.00"))
+                .quantity(5)
+                .category("Peripherals")
+                .isActive(true)
+                .build());
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/" + savedProduct.getId())
+                .retrieve()
+                .body(Map.class);
+        Map list = restClient.get()
+                .uri(baseUrl + "/category/Peripherals")
+                .retrieve()
+                .body(Map.class);
+
+        assertThat((Map<String, Object>) response.get("data")).containsEntry("description", null);
+        assertThat(((List<Map<String, Object>>) list.get("data")).getFirst()).containsEntry("description", null);
+    }
+
+    @Test
+    @DisplayName("Should answer conditional GET with 304 until the product changes")
+    void shouldReturnNotModifiedForUnchangedProduct() {
+        Product product = productRepository.save(Product.builder()
+                .name("Monitor")
+                .price(new BigDecimal("199.00"))
+                .quantity(4)
+                .category("Displays")
+                .isActive(true)
+                .build());
+
+        var first = restClient.get()
+                .uri(baseUrl + "/" + product.getId())
+                .retrieve()
+                .toEntity(Map.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+        assertThat(first.getHeaders().getLastModified()).isPositive();
+
+        var unchanged = restClient.get()
+                .uri(baseUrl + "/" + product.getId())
+                .header("If-None-Match", etag)
+                .retrieve()
+                .toBodilessEntity();
+        assertThat(unchanged.getStatusCode().value()).isEqualTo(304);
+
+        ProductRequest update = ProductRequest.builder()
+                .name("Monitor 27")
+                .price(new BigDecimal("249.00"))
+                .quantity(4)
+                .category("Displays")
+                .build();
+        restClient.put()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(update)
+                .retrieve()
+                .toBodilessEntity();
+
+        var changed = restClient.get()
+                .uri(baseUrl + "/" + product.getId())
+                .header("If-None-Match", etag)
+                .retrieve()
+                .toEntity(Map.class);
+        assertThat(changed.getStatusCode().value()).isEqualTo(200);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Should validate lists by entity tag only, so a delete is never answered with 304")
+    void shouldIgnoreIfModifiedSinceForLists() {
+        productRepository.save(Product.builder()
+                .name("Lamp")
+                .price(new BigDecimal("20.00"))
+                .quantity(2)
+                .category("Lighting")
+                .isActive(true)
+                .build());
+        Product deleted = productRepository.save(Product.builder()
+                .name("Bulb")
+                .price(new BigDecimal("2.00"))
+                .quantity(20)
+                .category("Lighting")
+                .isActive(true)
+                .build());
+
+        var first = restClient.get()
+                .uri(baseUrl + "/category/Lighting")
+                .retrieve()
+                .toEntity(Map.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+        assertThat(first.getHeaders().containsHeader("Last-Modified")).isFalse();
+
+        var unchanged = restClient.get()
+                .uri(baseUrl + "/category/Lighting")
+                .header("If-None-Match", etag)
+                .retrieve()
+                .toBodilessEntity();
+        assertThat(unchanged.getStatusCode().value()).isEqualTo(304);
+
+        restClient.delete()
+                .uri(baseUrl + "/" + deleted.getId())
+                .retrieve()
+                .toBodilessEntity();
+
+        var afterDelete = restClient.get()
+                .uri(baseUrl + "/category/Lighting")
+                .header("If-None-Match", etag)
+                .header("If-Modified-Since", "Fri, 01 Jan 2100 00:00:00 GMT")
+                .retrieve()
+                .toEntity(Map.class);
+        assertThat(afterDelete.getStatusCode().value()).isEqualTo(200);
+        assertThat((List<?>) afterDelete.getBody().get("data")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should keep category statistics current across creates and deletes")
+    void shouldMaintainCategoryStats() {
+        Long deletedId = null;
+        for (String[] values : new String[][]{{"10.00", "1", "true"}, {"30.00", "2", "false"}, {"50.00", "3", "true"}}) {
+            Map created = restClient.post()
+                    .uri(baseUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ProductRequest.builder()
+                            .name("Speaker " + values[0])
+                            .price(new BigDecimal(values[0]))
+                            .quantity(Integer.valueOf(values[1]))
+                            .category("Audio")
+                            .isActive(Boolean.valueOf(values[2]))
+                            .build())
+                    .retrieve()
+                    .body(Map.class);
+            deletedId = ((Number) ((Map<String, Object>) created.get("data")).get("id")).longValue();
+        }
+        restClient.delete()
+                .uri(baseUrl + "/" + deletedId)
+                .retrieve()
+                .toBodilessEntity();
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/categories/stats")
+                .retrieve()
+                .body(Map.class);
+
+        var stats = ((List<Map<String, Object>>) response.get("data")).stream()
+                .filter(category -> "Audio".equals(category.get("category")))
+                .findFirst()
+                .orElseThrow();
+        assertThat(stats.get("productCount")).isEqualTo(2);
+        assertThat(stats.get("activeCount")).isEqualTo(1);
+        assertThat(stats.get("totalQuantity")).isEqualTo(3);
+        assertThat(((Number) stats.get("minPrice")).doubleValue()).isEqualTo(10.0);
+        assertThat(((Number) stats.get("maxPrice")).doubleValue()).isEqualTo(30.0);
+        assertThat(((Number) stats.get("averagePrice")).doubleValue()).isEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("Should keep the category stock total exact under concurrent adjustments of many products")
+    void shouldAdjustStockConcurrentlyWithinOneCategory() {
+        List<Long> ids = Stream.iterate(1, i -> i + 1)
+                .limit(8)
+                .map(i -> productService.createProduct(ProductRequest.builder()
+                        .name("Contended " + i)
+                        .price(new BigDecimal("5.00"))
+                        .quantity(10)
+                        .category("Contended")
+                        .isActive(true)
+                        .build()).getId())
+                .toList();
+
+        List<CompletableFuture<ProductResponse>> adjustments = ids.stream()
+                .flatMap(id -> Stream.generate(() -> CompletableFuture.supplyAsync(() -> productService.adjustStock(id, 1)))
+                        .limit(10))
+                .toList();
+        adjustments.forEach(CompletableFuture::join);
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/categories/stats")
+                .retrieve()
+                .body(Map.class);
+        var stats = ((List<Map<String, Object>>) response.get("data")).stream()
+                .filter(category -> "Contended".equals(category.get("category")))
+                .findFirst()
+                .orElseThrow();
+        assertThat(stats.get("productCount")).isEqualTo(8);
+        assertThat(stats.get("totalQuantity")).isEqualTo(160);
+        assertThat(((Number) stats.get("minPrice")).doubleValue()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Should return several category shelves in one call")
+    void shouldGetProductsByCategories() {
+        for (String[] values : new String[][]{{"Lamp", "Lighting", "true"}, {"Bulb", "Lighting", "false"},
+                {"Torch", "Lighting", "true"}, {"Rug", "Flooring", "true"}}) {
+            restClient.post()
+                    .uri(baseUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ProductRequest.builder()
+                            .name(values[0])
+                            .price(new BigDecimal("15.00"))
+                            .quantity(5)
+                            .category(values[1])
+                            .isActive(Boolean.valueOf(values[2]))
+                            .build())
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+
+        Map response = restClient.get()
+                .uri(baseUrl + "/categories?names=Flooring,Lighting,Unknown&limit=1&activeOnly=true")
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, List<Map<String, Object>>> shelves =
+                (Map<String, List<Map<String, Object>>>) response.get("data");
+        assertThat(shelves).containsOnlyKeys("Flooring", "Lighting", "Unknown");
+        assertThat(shelves.get("Flooring")).extracting(product -> product.get("name")).containsExactly("Rug");
+        assertThat(shelves.get("Lighting")).extracting(product -> product.get("name")).containsExactly("Lamp");
+        assertThat(shelves.get("Unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should adjust stock atomically and never below zero")
+    void shouldAdjustStock() {
+        Product product = productRepository.save(Product.builder()
+                .name("Flash Sale Item")
+                .price(new BigDecimal("9.99"))
+                .quantity(3)
+                .category("Sale")
+                .isActive(true)
+                .build());
+
+        Map response = restClient.post()
+                .uri(baseUrl + "/" + product.getId() + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("delta", -2))
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        assertThat(data.get("quantity")).isEqualTo(1);
+        assertThatThrownBy(() -> restClient.post()
+                .uri(baseUrl + "/" + product.getId() + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("delta", -2))
+                .retrieve()
+                .toBodilessEntity())
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        ex -> assertThat(ex.getStatusCode().value()).isEqualTo(409));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply a quantity and price delta synchronously when write-behind is off")
+    void shouldPatchProduct() {
+        Product product = productRepository.save(Product.builder()
+                .name("Hot Item")
+                .price(new BigDecimal("15.00"))
+                .quantity(10)
+                .category("Sale")
+                .isActive(true)
+                .build());
+
+        Map response = restClient.patch()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("quantityDelta", -4, "price", 12.50))
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        assertThat(data.get("quantity")).isEqualTo(6);
+        assertThat(((Number) data.get("price")).doubleValue()).isEqualTo(12.5);
+        assertThatThrownBy(() -> restClient.patch()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("quantityDelta", -7))
+                .retrieve()
+                .toBodilessEntity())
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        ex -> assertThat(ex.getStatusCode().value()).isEqualTo(409));
+    }
+
+    @Test
+    @DisplayName("Should serve fresh cached payloads after an update")
+    void shouldRefreshEncodedPayloadAfterUpdate() {
+        Product product = productRepository.save(Product.builder()
+                .name("Cached Item")
+                .price(new BigDecimal("5.00"))
+                .quantity(2)
+                .category("Cached")
+                .isActive(true)
+                .build());
+        restClient.get().uri(baseUrl + "/" + product.getId()).retrieve().body(Map.class);
+        restClient.get().uri(baseUrl + "/category/Cached").retrieve().body(Map.class);
+
+        restClient.put()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ProductRequest.builder()
+                        .name("Cached Item v2")
+                        .price(new BigDecimal("6.00"))
+                        .quantity(2)
+                        .category("Cached")
+                        .build())
+                .retrieve()
+                .toBodilessEntity();
+
+        Map single = restClient.get().uri(baseUrl + "/" + product.getId()).retrieve().body(Map.class);
+        Map category = restClient.get().uri(baseUrl + "/category/Cached").retrieve().body(Map.class);
+        assertThat(((Map<String, Object>) single.get("data")).get("name")).isEqualTo("Cached Item v2");
+        assertThat(single.get("timestamp")).isNotNull();
+        assertThat(((List<Map<String, Object>>) category.get("data")).getFirst().get("name"))
+                .isEqualTo("Cached Item v2");
+    }
+
+    @Test
+    @DisplayName("Should serve CBOR when the client asks for it")
+    void shouldNegotiateCbor() {
+        Product product = productRepository.save(Product.builder()
+                .name("Binary Item")
+                .price(new BigDecimal("5.00"))
+                .quantity(2)
+                .category("Tech")
+                .isActive(true)
+                .build());
+
+        byte[] body = restClient.get()
+                .uri(baseUrl + "/" + product.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .retrieve()
+                .body(byte[].class);
+
+        Map response = CBORMapper.builder().build().readValue(body, Map.class);
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        assertThat(data.get("name")).isEqualTo("Binary Item");
+    }
+
+    @Test
+    @DisplayName("Should reject an update based on a stale version")
+    void shouldRejectStaleUpdate() {
+        Product product = productRepository.save(Product.builder()
+                .name("Headphones")
+                .price(new BigDecimal("59.00"))
+                .quantity(10)
+                .category("Audio")
+                .isActive(true)
+                .build());
+        ProductRequest update = ProductRequest.builder()
+                .name("Headphones Pro")
+                .price(new BigDecimal("79.00"))
+                .quantity(10)
+                .category("Audio")
+                .version(product.getVersion())
+                .build();
+
+        restClient.put()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(update)
+                .retrieve()
+                .toBodilessEntity();
+
+        assertThatThrownBy(() -> restClient.put()
+                .uri(baseUrl + "/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(update)
+                .retrieve()
+                .toBodilessEntity())
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        ex -> assertThat(ex.getStatusCode().value()).isEqualTo(409));
+    }
+
+    @Test
+    @DisplayName("Should stream committed product changes to subscribers")
+    void shouldStreamProductChanges() throws Exception {
+        HttpResponse<Stream<String>> stream = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/changes?since=0"))
+                        .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(stream.statusCode()).isEqualTo(200);
+
+        restClient.post()
+                .uri(baseUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ProductRequest.builder()
+                        .name("Streamed Item")
+                        .price(new BigDecimal("15.00"))
+                        .quantity(3)
+                        .category("Feed")
+                        .isActive(true)
+                        .build())
+                .retrieve()
+                .toBodilessEntity();
+
+        try (Stream<String> lines = stream.body()) {
+            String data = CompletableFuture.supplyAsync(() -> lines
+                            .filter(line -> line.startsWith("data:") && line.contains("Streamed Item"))
+                            .findFirst()
+                            .orElseThrow())
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(data).contains("\"type\":\"CREATED\"");
+        }
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight category read between concurrent callers")
+    void shouldCollapseConcurrentCategoryReads() throws InterruptedException {
+        productRepository.save(Product.builder()
+                .name("Hot Item")
+                .price(new BigDecimal("5.00"))
+                .quantity(10)
+                .category(BlockingCategoryLoads.CATEGORY)
+                .isActive(true)
+                .build());
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_CATEGORY).evict(BlockingCategoryLoads.CATEGORY);
+        double leadersBefore = singleFlightCalls("leader");
+        double collapsedBefore = singleFlightCalls("collapsed");
+        BlockingCategoryLoads.CALLS.set(0);
+        BlockingCategoryLoads.release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+
+        List<List<ProductResponse>> results;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<ProductResponse>>> calls = Stream.generate(() -> callers.submit(() -> {
+                        started.incrementAndGet();
+                        return productService.getProductsByCategory(BlockingCategoryLoads.CATEGORY);
+                    }))
+                    .limit(16)
+                    .toList();
+            while (started.get() < 16 || BlockingCategoryLoads.CALLS.get() == 0) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            // the leader is parked in the repository; give the others time to find its call
+            TimeUnit.MILLISECONDS.sleep(200);
+            BlockingCategoryLoads.release.countDown();
+            results = calls.stream().map(ProductControllerIntegrationTest::join).toList();
+        }
+
+        assertThat(results).allSatisfy(products -> assertThat(products)
+                .extracting(ProductResponse::getName)
+                .containsExactly("Hot Item"));
+        assertThat(BlockingCategoryLoads.CALLS.get()).isEqualTo(1);
+        assertThat(singleFlightCalls("leader") - leadersBefore).isEqualTo(1);
+        assertThat(singleFlightCalls("collapsed") - collapsedBefore).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Should not keep a category read in the cache that loaded the row before an update committed")
+    void shouldNotCacheReadThatRacedUpdate() throws InterruptedException {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Old Name")
+                .price(new BigDecimal("5.00"))
+                .quantity(10)
+                .category(BlockingCategoryLoads.RACING)
+                .isActive(true)
+                .build());
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_CATEGORY).evict(BlockingCategoryLoads.RACING);
+        BlockingCategoryLoads.loaded = new CountDownLatch(1);
+        BlockingCategoryLoads.release = new CountDownLatch(1);
+
+        List<ProductResponse> raced;
+        try (ExecutorService reader = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<ProductResponse>> read = reader.submit(
+                    () -> productService.getProductsByCategory(BlockingCategoryLoads.RACING));
+            assertThat(BlockingCategoryLoads.loaded.await(10, TimeUnit.SECONDS)).isTrue();
+            productService.updateProduct(savedProduct.getId(), ProductRequest.builder()
+                    .name("New Name")
+                    .price(new BigDecimal("5.00"))
+                    .quantity(10)
+                    .category(BlockingCategoryLoads.RACING)
+                    .build());
+            BlockingCategoryLoads.release.countDown();
+            raced = join(read);
+        }
+
+        assertThat(raced).extracting(ProductResponse::getName).containsExactly("Old Name");
+        assertThat(productService.getProductsByCategory(BlockingCategoryLoads.RACING))
+                .extracting(ProductResponse::getName)
+                .containsExactly("New Name");
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private double singleFlightCalls(String outcome) {
+        var counter = meterRegistry.find("singleflight.calls")
+                .tag("name", "productsByCategory")
+                .tag("outcome", outcome)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    @DisplayName("Should reject a client with 429 once its token bucket is empty")
+    void shouldRateLimitExpensiveEndpointPerClient() {
+        HttpClientErrorException rejected = null;
+        for (int i = 0; i < 20 && rejected == null; i++) {
+            try {
+                restClient.get()
+                        .uri(baseUrl)
+                        .header("X-API-Key", "greedy-client")
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (HttpClientErrorException ex) {
+                rejected = ex;
+            }
+        }
+
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getStatusCode().value()).isEqualTo(429);
+        assertThat(rejected.getResponseHeaders().getFirst("Retry-After")).isNotNull();
+        Map response = restClient.get()
+                .uri(baseUrl)
+                .header("X-API-Key", "other-client")
+                .retrieve()
+                .body(Map.class);
+        assertThat(response.get("success")).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Should keep rate limiting a client that rotates unknown API keys by its address")
+    void shouldNotGiveUnknownApiKeysTheirOwnBucket() throws InterruptedException {
+        HttpClientErrorException rejected = null;
+        for (int i = 0; i < 20 && rejected == null; i++) {
+            try {
+                restClient.get()
+                        .uri(baseUrl)
+                        .header("X-API-Key", "rotated-" + i)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (HttpClientErrorException ex) {
+                rejected = ex;
+            }
+        }
+
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getStatusCode().value()).isEqualTo(429);
+        Map response = restClient.get()
+                .uri(baseUrl)
+                .header("X-API-Key", "other-client")
+                .retrieve()
+                .body(Map.class);
+        assertThat(response.get("success")).isEqualTo(true);
+        // let the shared loopback bucket refill before other tests call without a key
+        TimeUnit.SECONDS.sleep(Long.parseLong(rejected.getResponseHeaders().getFirst("Retry-After")) + 1);
+    }
+
+    @Test
+    @DisplayName("Should page without an exact count when asked for an estimate or no total")
+    void shouldPageWithEstimatedOrNoTotal() {
+        for (int i = 1; i <= 5; i++) {
+            productRepository.save(Product.builder()
+                    .name("Paged " + i)
+                    .price(new BigDecimal("1.00"))
+                    .quantity(i)
+                    .category("Paging")
+                    .isActive(i % 2 == 1)
+                    .build());
+        }
+
+        Map<String, Object> none = (Map<String, Object>) restClient.get()
+                .uri(baseUrl + "/paged?page=0&size=2&total=none")
+                .retrieve()
+                .body(Map.class)
+                .get("data");
+        assertThat(none).doesNotContainKeys("totalElements", "totalPages");
+        assertThat(none.get("last")).isEqualTo(false);
+
+        Map<String, Object> lastActive = (Map<String, Object>) restClient.get()
+                .uri(baseUrl + "/paged?page=1&size=2&activeOnly=true&total=estimate")
+                .retrieve()
+                .body(Map.class)
+                .get("data");
+        assertThat((List<?>) lastActive.get("content")).hasSize(1);
+        assertThat(lastActive.get("totalElements")).isEqualTo(3);
+        assertThat(lastActive.get("totalEstimated")).isEqualTo(false);
+        assertThat(lastActive.get("last")).isEqualTo(true);
+
+        Map<String, Object> pastEnd = (Map<String, Object>) restClient.get()
+                .uri(baseUrl + "/paged?page=5&size=2&total=estimate")
+                .retrieve()
+                .body(Map.class)
+                .get("data");
+        assertThat((List<?>) pastEnd.get("content")).isEmpty();
+        assertThat(pastEnd.get("totalEstimated")).isEqualTo(true);
+        assertThat(((Number) pastEnd.get("totalElements")).longValue()).isLessThanOrEqualTo(10);
+
+        for (String uri : List.of("/paged?total=roughly", "/paged?mode=cursor&activeOnly=true",
+                "/paged?mode=cursor&total=none")) {
+            assertThatThrownBy(() -> restClient.get()
+                    .uri(baseUrl + uri)
+                    .retrieve()
+                    .toBodilessEntity())
+                    .isInstanceOfSatisfying(HttpClientErrorException.class,
+                            ex -> assertThat(ex.getStatusCode().value()).isEqualTo(400));
+        }
+    }
+
+    @Test
+    @DisplayName("Should filter by category, price range and stock with facet counts")
+    void shouldFilterProductsWithFacets() throws Exception {
+        for (String[] values : new String[][]{{"Desk", "Office", "120.00", "5", "true"},
+                {"Chair", "Office", "80.00", "0", "true"}, {"Shelf", "Office", "150.00", "2", "false"},
+                {"Lamp", "Office Lighting", "40.00", "9", "true"}}) {
+            restClient.post()
+                    .uri(baseUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ProductRequest.builder()
+                            .name(values[0])
+                            .category(values[1])
+                            .price(new BigDecimal(values[2]))
+                            .quantity(Integer.parseInt(values[3]))
+                            .isActive(Boolean.parseBoolean(values[4]))
+                            .build())
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+
+        String uri = baseUrl + "/filter?category=Office&minPrice=50&maxPrice=140&inStock=true&sortBy=price&sortDir=desc";
+        Map response = null;
+        for (int attempt = 0; attempt < 50 && response == null; attempt++) {
+            try {
+                response = restClient.get().uri(uri).retrieve().body(Map.class);
+            } catch (HttpServerErrorException ex) {
+                assertThat(ex.getStatusCode().value()).isEqualTo(503);
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        }
+
+        assertThat(response).isNotNull();
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        Map<String, Object> products = (Map<String, Object>) data.get("products");
+        assertThat((List<Map<String, Object>>) products.get("content"))
+                .extracting(product -> product.get("name"))
+                .containsExactly("Desk");
+        assertThat(products.get("totalElements")).isEqualTo(1);
+        Map<String, Object> facets = (Map<String, Object>) data.get("facets");
+        assertThat((Map<String, Object>) facets.get("categories")).containsEntry("Office", 1);
+        assertThat(facets.get("inStock")).isEqualTo(1);
+        assertThat(facets.get("outOfStock")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore product changes that reach the catalog snapshot out of order")
+    void shouldIgnoreOutOfOrderSnapshotChanges() {
+        ProductResponse created = productService.createProduct(ProductRequest.builder()
+                .name("Ordered Item")
+                .category("Ordering")
+                .price(new BigDecimal("10.00"))
+                .quantity(5)
+                .isActive(true)
+                .build());
+        ProductResponse soldOut = productService.updateProduct(created.getId(), ProductRequest.builder()
+                .name("Ordered Item")
+                .category("Ordering")
+                .price(new BigDecimal("10.00"))
+                .quantity(0)
+                .isActive(true)
+                .build());
+        ProductFilter inStock = new ProductFilter(Set.of("Ordering"), null, true, null, null,
+                ProductFilter.SortKey.ID, true, 0, 10);
+        ProductFilter any = new ProductFilter(Set.of("Ordering"), null, null, null, null,
+                ProductFilter.SortKey.ID, true, 0, 10);
+
+        catalogSnapshot.onProductChanged(ProductChangedEvent.updated(soldOut, created));
+        assertThat(catalogSnapshot.filter(inStock).ids()).isEmpty();
+        assertThat(catalogSnapshot.filter(any).ids()).containsExactly(created.getId());
+
+        productService.deleteProduct(created.getId());
+        catalogSnapshot.onProductChanged(ProductChangedEvent.updated(created, soldOut));
+        assertThat(catalogSnapshot.filter(any).totalElements()).isZero();
+    }
+
+    /**
+     * Holds repository loads of one category until the test releases them, and counts them. Loads
+     * of {@link #RACING} run first and are held before they return, so a write can commit between
+     * the read and the cache put.
+     */
+    @Aspect
+    static class BlockingCategoryLoads {
+
+        static final String CATEGORY = "Blocking";
+        static final String RACING = "Racing";
+        static final AtomicInteger CALLS = new AtomicInteger();
+        static volatile CountDownLatch release = new CountDownLatch(0);
+        static volatile CountDownLatch loaded = new CountDownLatch(0);
+
+        @Around("execution(* id.my.hendisantika.springboot4sample.repository.ProductRepository.findResponsesByCategory(String)) && args(category)")
+        public Object hold(ProceedingJoinPoint joinPoint, String category) throws Throwable {
+            if (CATEGORY.equals(category)) {
+                CALLS.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            if (!RACING.equals(category)) {
+                return joinPoint.proceed();
+            }
+            Object result = joinPoint.proceed();
+            loaded.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return result;
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package id.my.hendisantika.springboot4sample.datasource;
+
+import id.my.hendisantika.springboot4sample.config.ReplicaProperties;
+import id.my.hendisantika.springboot4sample.dto.ProductRequest;
+import id.my.hendisantika.springboot4sample.dto.ProductResponse;
+import id.my.hendisantika.springboot4sample.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Two in-memory H2 databases stand in for the MySQL primary and replica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.search.index-enabled=false",
+        "app.replica.enabled=true",
+        "app.replica.nodes[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL
+})
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_SCHEMA = """
+            CREATE TABLE IF NOT EXISTS products (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                name VARCHAR(100) NOT NULL,
+                description VARCHAR(500),
+                price DECIMAL(10, 2) NOT NULL,
+                quantity INT NOT NULL,
+                category VARCHAR(50),
+                is_active BOOLEAN,
+                created_at TIMESTAMP,
+                updated_at TIMESTAMP,
+                version BIGINT DEFAULT 0 NOT NULL
+            );
+            CREATE TABLE IF NOT EXISTS category_summaries (
+                category VARCHAR(50) PRIMARY KEY,
+                product_count BIGINT NOT NULL,
+                active_count BIGINT NOT NULL,
+                total_quantity BIGINT NOT NULL,
+                price_sum DECIMAL(19, 2) NOT NULL,
+                min_price DECIMAL(10, 2),
+                max_price DECIMAL(10, 2),
+                updated_at TIMESTAMP
+            )""";
+
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    static {
+        REPLICA.execute(REPLICA_SCHEMA);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        REPLICA.update("DELETE FROM products");
+        REPLICA.update("INSERT INTO products (name, price, quantity, category, is_active, created_at, updated_at) "
+                + "VALUES ('Replica copy', 1.00, 1, 'Replica', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    @DisplayName("Should write to the primary and read from the replica")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        productService.createProduct(ProductRequest.builder()
+                .name("Primary copy")
+                .price(new BigDecimal("2.00"))
+                .quantity(2)
+                .category("Primary")
+                .build());
+
+        assertThat(productService.getAllProducts())
+                .extracting(ProductResponse::getName)
+                .containsExactly("Replica copy");
+    }
+
+    @Test
+    @DisplayName("Should read from the primary while pinned for read-your-writes")
+    void shouldReadFromPrimaryWhenPinned() {
+        productService.createProduct(ProductRequest.builder()
+                .name("Fresh write")
+                .price(new BigDecimal("3.00"))
+                .quantity(3)
+                .category("Primary")
+                .build());
+
+        ReplicaRouting.pinToPrimary();
+
+        assertThat(productService.getAllProducts())
+                .extracting(ProductResponse::getName)
+                .contains("Fresh write")
+                .doesNotContain("Replica copy");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when no replica is reachable")
+    void shouldFallBackToPrimaryWhenReplicasAreDown() throws Exception {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:fallback;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/missing", "sa", "");
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, Map.of("down", unreachable),
+                ReplicaProperties.LoadBalancing.ROUND_ROBIN, Duration.ofMinutes(1));
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains("fallback");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a replica with an exhausted pool in rotation and read from the next one")
+    void shouldSkipBusyReplicaWithoutMarkingItDown() throws Exception {
+        SQLException poolTimeout = new SQLTransientConnectionException(
+                "busy - Connection is not available, request timed out after 30000ms.");
+
+        assertThat(replicaUpAfterFailure(poolTimeout)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should take a replica that refuses connections out of rotation")
+    void shouldMarkUnreachableReplicaDown() throws Exception {
+        SQLException refused = new SQLNonTransientConnectionException("Communications link failure", "08S01");
+
+        assertThat(replicaUpAfterFailure(refused)).isZero();
+    }
+
+    /**
+     * Reads twice through a failing replica and a working one, and returns the failing replica's
+     * {@code db.replica.up} gauge.
+     */
+    private static double replicaUpAfterFailure(SQLException failure) throws Exception {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:failover-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource spare = new DriverManagerDataSource("jdbc:h2:mem:spare;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource failing = new DelegatingDataSource(spare) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw failure;
+            }
+        };
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("failing", failing);
+        replicas.put("spare", spare);
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, replicas,
+                ReplicaProperties.LoadBalancing.ROUND_ROBIN, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try (Connection connection = dataSource.getConnection()) {
+                    assertThat(connection.getMetaData().getURL()).contains("spare");
+                }
+            }
+            return registry.get("db.replica.up").tag("replica", "failing").gauge().value();
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import id.my.hendisantika.springboot4sample.entity.CategorySummary;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Starts the application against a database created by the baseline release, whose schema
+ * Hibernate generated with {@code ddl-auto=update}. Flyway has to baseline it at V1 and apply every
+ * later migration before Hibernate validates the mapping.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.search.index-enabled=false")
+class FlywayBaselineMigrationTest {
+
+    /**
+     * DDL Hibernate generated for the baseline {@code Product} entity.
+     */
+    private static final String HIBERNATE_BASELINE_SCHEMA = """
+            create table products (
+                id bigint not null auto_increment,
+                category varchar(50),
+                created_at datetime(6),
+                description varchar(500),
+                is_active bit,
+                name varchar(100) not null,
+                price decimal(10,2) not null,
+                quantity integer not null,
+                updated_at datetime(6),
+                primary key (id)
+            ) engine=InnoDB""";
+
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:9.5.0")
+            .withDatabaseName("spring_boot4_db")
+            .withUsername("yu71")
+            .withPassword("53cret");
+
+    static {
+        // The schema has to exist before the context starts Flyway, so the container is started here
+        mysql.start();
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(mysql.getJdbcUrl(),
+                mysql.getUsername(), mysql.getPassword()));
+        legacy.execute(HIBERNATE_BASELINE_SCHEMA);
+        legacy.update("INSERT INTO products (name, price, quantity, category, is_active, created_at, updated_at) "
+                + "VALUES ('Legacy Lamp', 25.00, 4, 'Lighting', true, NOW(6), NOW(6))");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategorySummaryRepository categorySummaryRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Test
+    @DisplayName("Should baseline a Hibernate-created schema at V1 and apply the later migrations")
+    void shouldMigrateBaselineSchema() {
+        List<String> applied = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success = 1 ORDER BY installed_rank", String.class);
+        String baselineType = jdbcTemplate.queryForObject(
+                "SELECT type FROM flyway_schema_history WHERE version = '1'", String.class);
+
+        assertThat(applied).containsExactly("1", "2", "3", "4", "5", "6", "7", "8");
+        assertThat(baselineType).isEqualTo("BASELINE");
+
+        List<Product> products = productRepository.findAll();
+        assertThat(products).singleElement().satisfies(product -> {
+            assertThat(product.getName()).isEqualTo("Legacy Lamp");
+            assertThat(product.getVersion()).isZero();
+        });
+        assertThat(categorySummaryRepository.findById("Lighting"))
+                .map(CategorySummary::getProductCount)
+                .contains(1L);
+    }
+}
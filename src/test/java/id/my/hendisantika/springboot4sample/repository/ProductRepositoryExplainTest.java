@@ -0,0 +1,257 @@
+package id.my.hendisantika.springboot4sample.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import id.my.hendisantika.springboot4sample.dto.ProductField;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Runs every {@link ProductRepository} query against the Flyway schema, captures the SQL the
+ * driver actually sends and fails if {@code EXPLAIN} reports a full table scan for it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "app.search.index-enabled=false",
+        "app.category-summary.reconcile-cron=-"
+})
+@Testcontainers
+class ProductRepositoryExplainTest {
+
+    private static final int PRODUCTS = 5000;
+    private static final int CATEGORIES = 50;
+
+    /**
+     * Queries that read the whole table on purpose, with the reason they are allowed to.
+     */
+    private static final Map<String, String> FULL_SCAN_ALLOWED = Map.of(
+            "findAllResponses", "returns every product",
+            "streamAllBy", "streams every product for exports",
+            "findVersion", "aggregates over every product",
+            "searchByKeyword", "leading-wildcard LIKE, served by the in-process search index",
+            "searchResponsesByKeyword", "leading-wildcard LIKE, served by the in-process search index",
+            "findByNameContainingIgnoreCase", "leading-wildcard LIKE, served by the in-process search index");
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:9.5.0")
+            .withDatabaseName("spring_boot4_db")
+            .withUsername("yu71")
+            .withPassword("53cret")
+            .withUrlParam("queryInterceptors", CapturingInterceptor.class.getName());
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[]{"Product " + i, "Description " + i, BigDecimal.valueOf(1 + i % 997, 0),
+                    i % 200, "category-" + i % CATEGORIES, i % 20 == 0, now.minusMinutes(i), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, quantity, category, is_active, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE products");
+    }
+
+    @Test
+    @DisplayName("Should not full-scan products for any indexed repository query")
+    void shouldUseIndexForEveryRepositoryQuery() {
+        Map<String, List<String>> statements = capturedStatements();
+
+        Map<String, String> fullScans = new LinkedHashMap<>();
+        statements.forEach((name, sqls) -> {
+            assertThat(sqls).as("SQL captured for %s", name).isNotEmpty();
+            for (String sql : sqls) {
+                // derived tables (<derivedN>) are scanned in memory, only base tables count
+                boolean scansTable = jdbcTemplate.queryForList("EXPLAIN " + sql)
+                        .stream()
+                        .anyMatch(row -> "ALL".equals(row.get("type"))
+                                && !String.valueOf(row.get("table")).startsWith("<"));
+                if (scansTable) {
+                    fullScans.put(name, sql);
+                }
+            }
+        });
+
+        assertThat(fullScans).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should check or explicitly allow every ProductRepository query")
+    void shouldCoverEveryRepositoryQuery() {
+        Set<String> covered = new HashSet<>(capturedStatements().keySet());
+        covered.addAll(FULL_SCAN_ALLOWED.keySet());
+
+        Set<String> declared = Arrays.stream(ProductRepository.class.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        Arrays.stream(ProductProjectionRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .forEach(declared::add);
+
+        assertThat(covered).containsAll(declared);
+    }
+
+    private Map<String, List<String>> capturedStatements() {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+        List<Long> ids = List.of(id, id + 1, id + 2);
+        Set<ProductField> fields = EnumSet.of(ProductField.NAME, ProductField.PRICE);
+        Sort byPrice = Sort.by("price").and(Sort.by("id"));
+
+        statements.put("findById", capture(() -> productRepository.findById(id)));
+        statements.put("findAll(price)", capture(() -> productRepository.findAll(PageRequest.of(0, 20, Sort.by("price")))));
+        statements.put("findAll(createdAt)", capture(() -> productRepository.findAll(PageRequest.of(0, 20, Sort.by("createdAt").descending()))));
+        statements.put("findByCategory", capture(() -> productRepository.findByCategory("category-7")));
+        statements.put("findByIsActiveTrue", capture(() -> {
+            productRepository.findByIsActiveTrue();
+            productRepository.findByIsActiveTrue(PageRequest.of(0, 20, Sort.by("id")));
+        }));
+        statements.put("findSliceBy", capture(() -> productRepository.findSliceBy(PageRequest.of(0, 20, Sort.by("price")))));
+        statements.put("findSliceByIsActiveTrue", capture(() -> productRepository.findSliceByIsActiveTrue(PageRequest.of(0, 20, Sort.by("id")))));
+        statements.put("countByIsActiveTrue", capture(() -> productRepository.countByIsActiveTrue()));
+        statements.put("findActiveByCategorY", capture(() -> productRepository.findActiveByCategorY("category-7")));
+        statements.put("findAllBy", capture(() -> {
+            productRepository.findAllBy(ScrollPosition.keyset(), Sort.by("id"), Limit.of(20));
+            productRepository.findAllBy(ScrollPosition.forward(Map.of("id", id + 100)), Sort.by("id"), Limit.of(20));
+            productRepository.findAllBy(ScrollPosition.forward(new LinkedHashMap<>(Map.of("price", new BigDecimal("500.00"), "id", id))),
+                    byPrice, Limit.of(20));
+        }));
+        statements.put("findAllByIdForUpdate", capture(() -> transactionTemplate.executeWithoutResult(
+                status -> productRepository.findAllByIdForUpdate(ids))));
+        statements.put("findResponseById", capture(() -> productRepository.findResponseById(id)));
+        statements.put("findResponsesByCategory", capture(() -> productRepository.findResponsesByCategory("category-7")));
+        statements.put("findFirstPerCategory", capture(() -> {
+            productRepository.findFirstPerCategory(List.of("category-7", "category-8"), false, 20);
+            productRepository.findFirstPerCategory(List.of("category-7", "category-8"), true, 20);
+        }));
+        statements.put("findActiveResponses", capture(() -> productRepository.findActiveResponses()));
+        statements.put("findResponsesByIdIn", capture(() -> productRepository.findResponsesByIdIn(ids)));
+        statements.put("findVersionById", capture(() -> productRepository.findVersionById(id)));
+        statements.put("findVersionByCategory", capture(() -> productRepository.findVersionByCategory("category-7")));
+        statements.put("findActiveVersion", capture(() -> productRepository.findActiveVersion()));
+        statements.put("findMinPriceByCategory", capture(() -> productRepository.findMinPriceByCategory("category-7")));
+        statements.put("findMaxPriceByCategory", capture(() -> productRepository.findMaxPriceByCategory("category-7")));
+        statements.put("adjustQuantity", capture(() -> transactionTemplate.executeWithoutResult(
+                status -> productRepository.adjustQuantity(id, 1, LocalDateTime.now()))));
+        statements.put("findProjected", capture(() -> {
+            productRepository.findProjected(ProductSpecifications.hasCategory("category-7"), fields, Pageable.unpaged());
+            productRepository.findProjected(ProductSpecifications.isActive(), fields, Pageable.unpaged());
+            productRepository.findProjected(ProductSpecifications.hasIdIn(ids), fields, Pageable.unpaged());
+        }));
+        return statements;
+    }
+
+    private List<String> capture(Runnable query) {
+        List<String> captured = new ArrayList<>();
+        CapturingInterceptor.CAPTURED.set(captured);
+        try {
+            query.run();
+        } finally {
+            CapturingInterceptor.CAPTURED.remove();
+        }
+        return captured;
+    }
+
+    /**
+     * Records the statements sent on the current thread. Client-side prepared statements are
+     * reported with their parameters inlined, so the SQL can be explained as is.
+     */
+    public static class CapturingInterceptor implements QueryInterceptor {
+
+        static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null) {
+                String statement = sql.get().strip();
+                String verb = statement.toLowerCase(Locale.ROOT);
+                if (verb.startsWith("select") || verb.startsWith("update")) {
+                    captured.add(statement);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                                   ServerSession serverSession) {
+            return null;
+        }
+    }
+}
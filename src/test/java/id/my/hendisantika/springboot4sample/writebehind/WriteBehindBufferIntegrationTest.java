@@ -0,0 +1,213 @@
+package id.my.hendisantika.springboot4sample.writebehind;
+
+import id.my.hendisantika.springboot4sample.config.WriteBehindProperties;
+import id.my.hendisantika.springboot4sample.entity.Product;
+import id.my.hendisantika.springboot4sample.entity.WriteBehindCheckpoint;
+import id.my.hendisantika.springboot4sample.repository.ProductRepository;
+import id.my.hendisantika.springboot4sample.repository.WriteBehindCheckpointRepository;
+import id.my.hendisantika.springboot4sample.service.ProductDelta;
+import id.my.hendisantika.springboot4sample.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by IntelliJ IDEA.
+ * Project : spring-boot4-sample
+ * User: hendisantika
+ * Link: s.id/hendisantika
+ * Email: hendisantika@yahoo.co.id
+ * Telegram : @hendisantika34
+ * Date: 17/10/26
+ * Time: 09.00
+ * To change this template use File | Settings | File Templates.
+ * <p>
+ * Runs with write-behind enabled and a flush interval long enough that only the tests flush.
+ * Restarts are simulated by opening further buffers on a journal directory and node id of their
+ * own, the way a new process would find them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.write-behind.enabled=true",
+        "app.write-behind.flush-interval=1h",
+        "app.search.index-enabled=false"
+})
+@Testcontainers
+class WriteBehindBufferIntegrationTest {
+
+    private static final Path JOURNAL_ROOT;
+
+    static {
+        try {
+            JOURNAL_ROOT = Files.createTempDirectory("write-behind-test");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:9.5.0")
+            .withDatabaseName("spring_boot4_db")
+            .withUsername("yu71")
+            .withPassword("53cret");
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private WriteBehindCheckpointRepository checkpointRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private RestClient restClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("app.write-behind.journal-dir", () -> JOURNAL_ROOT.resolve("app").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        restClient = RestClient.create();
+        writeBehindBuffer.flush();
+    }
+
+    @Test
+    @DisplayName("Should accept deltas, merge them and write them with the next flush")
+    void shouldMergeAndFlushDeltas() {
+        Product product = saveProduct("Buffered Widget", 10);
+        String productUrl = "http://localhost:" + port + "/api/v1.0/products/" + product.getId();
+        double flushedBefore = meterRegistry.counter("write.behind.flushed").count();
+
+        for (Map<String, Object> delta : List.<Map<String, Object>>of(
+                Map.of("quantityDelta", 5),
+                Map.of("quantityDelta", 3),
+                Map.of("quantityDelta", 2, "price", "12.50"))) {
+            HttpStatusCode status = restClient.patch()
+                    .uri(productUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(delta)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .getStatusCode();
+            assertThat(status).isEqualTo(HttpStatus.ACCEPTED);
+        }
+        assertThat(reload(product).getQuantity()).isEqualTo(10);
+
+        writeBehindBuffer.flush();
+
+        Product flushed = reload(product);
+        assertThat(flushed.getQuantity()).isEqualTo(20);
+        assertThat(flushed.getPrice()).isEqualByComparingTo("12.50");
+        // three increments coalesce into one delta
+        assertThat(meterRegistry.counter("write.behind.flushed").count() - flushedBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep a delta rejected at flush time in the journal and apply the others")
+    void shouldKeepRejectedDelta() throws IOException {
+        Product scarce = saveProduct("Scarce Widget", 2);
+        Product plenty = saveProduct("Plenty Widget", 2);
+        double rejectedBefore = meterRegistry.counter("write.behind.rejected").count();
+
+        writeBehindBuffer.submit(new ProductDelta(scarce.getId(), -5, null));
+        writeBehindBuffer.submit(new ProductDelta(scarce.getId(), 1, null));
+        writeBehindBuffer.submit(new ProductDelta(plenty.getId(), -1, null));
+        writeBehindBuffer.flush();
+
+        assertThat(reload(scarce).getQuantity()).isEqualTo(3);
+        assertThat(reload(plenty).getQuantity()).isEqualTo(1);
+        assertThat(meterRegistry.counter("write.behind.rejected").count() - rejectedBefore).isEqualTo(1.0);
+        assertThat(Files.readAllLines(JOURNAL_ROOT.resolve("app").resolve("rejected.log")))
+                .contains(scarce.getId() + ",-5,");
+    }
+
+    @Test
+    @DisplayName("Should replay unflushed deltas after a restart and never replay a checkpointed segment")
+    void shouldReplayJournalAfterRestart() throws IOException {
+        Product product = saveProduct("Journaled Widget", 10);
+        WriteBehindProperties properties = restartProperties();
+
+        // the first process journals a delta and dies before flushing it
+        WriteBehindBuffer crashed = newBuffer(properties);
+        crashed.submit(new ProductDelta(product.getId(), 4, null));
+        Path segment = properties.getJournalDir().resolve(String.format("segment-%012d.log", 0));
+        List<String> journaled = Files.readAllLines(segment);
+        assertThat(journaled).containsExactly(product.getId() + ",4,");
+
+        WriteBehindBuffer restarted = newBuffer(properties);
+        restarted.flush();
+
+        assertThat(reload(product).getQuantity()).isEqualTo(14);
+        assertThat(checkpointRepository.findById(properties.getNodeId()))
+                .map(WriteBehindCheckpoint::getSegment)
+                .contains(1L);
+        assertThat(segment).doesNotExist();
+
+        // a crash between the commit and the segment cleanup leaves the segment behind
+        Files.write(segment, journaled);
+        WriteBehindBuffer restartedAgain = newBuffer(properties);
+        restartedAgain.flush();
+
+        assertThat(reload(product).getQuantity()).isEqualTo(14);
+        assertThat(segment).doesNotExist();
+    }
+
+    private WriteBehindProperties restartProperties() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setJournalDir(JOURNAL_ROOT.resolve("restart"));
+        properties.setNodeId("restart-test");
+        return properties;
+    }
+
+    private WriteBehindBuffer newBuffer(WriteBehindProperties properties) throws IOException {
+        return new WriteBehindBuffer(productService, checkpointRepository, transactionTemplate, properties,
+                new SimpleMeterRegistry());
+    }
+
+    private Product saveProduct(String name, int quantity) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .price(new BigDecimal("10.00"))
+                .quantity(quantity)
+                .category("WriteBehind")
+                .isActive(true)
+                .build());
+    }
+
+    private Product reload(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow();
+    }
+}